@@ -5,12 +5,19 @@ import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import ru.shop.backend.search.model.*;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import ru.shop.backend.search.repository.ItemDbRepository;
+import ru.shop.backend.search.service.QueryLogRecorder;
 import ru.shop.backend.search.service.SearchService;
 
 
@@ -32,6 +39,7 @@ public class SearchController {
     @Parameter(name = "text", description = "Поисковый запрос")
     @GetMapping
     public SearchResult find(@RequestParam String text, @CookieValue(name="regionId", defaultValue="1") int regionId){
+        queryLog.record(QueryLogRecord.Endpoint.FIND, regionId, text);
         return service.getSearchResult( regionId,  text);
     }
     @ApiResponses(value = {
@@ -43,24 +51,62 @@ public class SearchController {
             @ApiResponse(responseCode = "404", description = "Регион не найден",
                     content = @Content)})
     @Parameter(name = "text", description = "Поисковый запрос")
+    @Parameter(name = "cursor", description = "Курсор следующей страницы из предыдущего ответа")
+    @Parameter(name = "size", description = "Размер страницы")
     @RequestMapping(method = GET, value = "/by", produces = "application/json;charset=UTF-8")
-    public ResponseEntity finds(@RequestParam String text, @CookieValue(name="regionId", defaultValue="1") int regionId) {
+    public ResponseEntity<StreamingResponseBody> finds(@RequestParam String text,
+                                                       @RequestParam(required = false) String cursor,
+                                                       @RequestParam(defaultValue = "150") int size,
+                                                       @CookieValue(name="regionId", defaultValue="1") int regionId) {
+        size = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        if (cursor != null) {
+            SearchCursor searchCursor;
+            try {
+                searchCursor = service.decodeCursor(cursor);
+            } catch (IllegalArgumentException e) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+            }
+            return stream(service.getPage(searchCursor, size));
+        }
+        queryLog.record(QueryLogRecord.Endpoint.FIND_BY, regionId, text);
         if (service.isNumeric(text)) {
             Integer itemId = itemDbRepository.findBySku(text).stream().findFirst().orElse(null);
             if (itemId == null) {
                 var catalogue = service.getByName(text);
                 if (catalogue.size() > 0) {
-                    return ResponseEntity.ok().body(new SearchResultElastic(catalogue));
+                    return stream(new CataloguePage(catalogue, null));
                 }
-                return ResponseEntity.ok().body(new SearchResultElastic(service.getAllFull(text)));
+                return stream(service.getAllFull(text, size));
             }
             try {
-                return ResponseEntity.ok().body(new SearchResultElastic(service.getByItemId(itemId.toString())));
+                return stream(new CataloguePage(service.getByItemId(itemId.toString()), null));
             } catch (Exception e) {
             }
         }
-        return ResponseEntity.ok().body(new SearchResultElastic(service.getAllFull(text)));
+        return stream(service.getAllFull(text, size));
     }
+
+    private ResponseEntity<StreamingResponseBody> stream(CataloguePage page) {
+        StreamingResponseBody body = out -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+                generator.writeStartObject();
+                generator.writeArrayFieldStart("result");
+                for (CatalogueElastic catalogue : page.getResult()) {
+                    generator.writeObject(catalogue);
+                }
+                generator.writeEndArray();
+                if (page.getNext() != null) {
+                    generator.writeStringField("cursor", page.getNext().encode());
+                }
+                generator.writeEndObject();
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.valueOf("application/json;charset=UTF-8")).body(body);
+    }
+
+    private static final int MAX_PAGE_SIZE = 500;
     private final ItemDbRepository itemDbRepository;
     private final SearchService service;
+    private final QueryLogRecorder queryLog;
+    private final ObjectMapper objectMapper;
 }
@@ -0,0 +1,33 @@
+package ru.shop.backend.search.config;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+import ru.shop.backend.search.service.SearchLatencyMonitor;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+@Component
+@RequiredArgsConstructor
+public class SearchLatencyInterceptor implements HandlerInterceptor {
+    private static final String START = SearchLatencyInterceptor.class.getName() + ".start";
+
+    private final SearchLatencyMonitor monitor;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (request.getAttribute(START) == null) {
+            request.setAttribute(START, System.nanoTime());
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        Object start = request.getAttribute(START);
+        if (start != null) {
+            monitor.record((System.nanoTime() - (Long) start) / 1_000_000);
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package ru.shop.backend.search.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class CataloguePage {
+    private List<CatalogueElastic> result;
+    private SearchCursor next;
+}
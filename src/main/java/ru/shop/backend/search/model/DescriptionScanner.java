@@ -0,0 +1,118 @@
+package ru.shop.backend.search.model;
+
+import java.util.Locale;
+
+public final class DescriptionScanner {
+    private static final ThreadLocal<DescriptionScanner> LOCAL = ThreadLocal.withInitial(DescriptionScanner::new);
+
+    private static final int KEEP = 0;
+    private static final int DROP = 1;
+    private static final int STRIP_YES = 2;
+
+    private char[] lower = new char[256];
+    private final StringBuilder out = new StringBuilder(256);
+
+    private DescriptionScanner() {
+    }
+
+    public static String build(String description) {
+        return LOCAL.get().scan(description);
+    }
+
+    private String scan(String description) {
+        out.setLength(0);
+        int length = description.length();
+        int start = 0;
+        while (start <= length) {
+            int end = description.indexOf(';', start);
+            if (end < 0) {
+                end = length;
+            }
+            fragment(description, start, end);
+            start = end + 1;
+        }
+        return out.toString();
+    }
+
+    private void fragment(String source, int start, int end) {
+        int length = end - start;
+        if (length == 0) {
+            return;
+        }
+        if (lower.length < length) {
+            lower = new char[Math.max(length, lower.length * 2)];
+        }
+        for (int i = 0; i < length; i++) {
+            char c = source.charAt(start + i);
+            if (c == '\u0130' || c == '\u03A3' || Character.isSurrogate(c)) {
+                String fallback = source.substring(start, end).toLowerCase(Locale.ROOT);
+                if (lower.length < fallback.length()) {
+                    lower = new char[fallback.length()];
+                }
+                fallback.getChars(0, fallback.length(), lower, 0);
+                emit(fallback.length());
+                return;
+            }
+            lower[i] = Character.toLowerCase(c);
+        }
+        emit(length);
+    }
+
+    private void emit(int length) {
+        switch (classify(length)) {
+            case DROP:
+                return;
+            case STRIP_YES:
+                for (int i = 0; i < length; i++) {
+                    if (lower[i] == ':' && matches(i + 1, length, " есть")) {
+                        i += 5;
+                    } else {
+                        out.append(lower[i]);
+                    }
+                }
+                return;
+            default:
+                for (int i = 0; i < length; i++) {
+                    if (lower[i] != ':') {
+                        out.append(lower[i]);
+                    }
+                }
+        }
+    }
+
+    private int classify(int length) {
+        boolean dash = false;
+        boolean yes = false;
+        boolean zero = false;
+        for (int i = 0; i + 1 < length; i++) {
+            if (lower[i] != ':' || lower[i + 1] != ' ') {
+                continue;
+            }
+            if (matches(i + 2, length, "нет")) {
+                return DROP;
+            }
+            dash |= matches(i + 2, length, "-");
+            yes |= matches(i + 2, length, "есть");
+            zero |= matches(i + 2, length, "0 ");
+        }
+        if (dash) {
+            return DROP;
+        }
+        if (yes) {
+            return STRIP_YES;
+        }
+        return zero ? DROP : KEEP;
+    }
+
+    private boolean matches(int from, int length, String token) {
+        if (from + token.length() > length) {
+            return false;
+        }
+        for (int i = 0; i < token.length(); i++) {
+            if (lower[from + i] != token.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
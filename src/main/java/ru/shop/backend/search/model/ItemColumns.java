@@ -0,0 +1,177 @@
+package ru.shop.backend.search.model;
+
+import java.util.Arrays;
+
+public final class ItemColumns {
+    private static final int ARRAY_HEADER = 16;
+    private static final int STRING_OVERHEAD = 24 + ARRAY_HEADER;
+    private static final int REFERENCE = 4;
+
+    private final long generation;
+    private final int size;
+    private final int[] itemIds;
+    private final int[] catalogueIds;
+    private final int[] brands;
+    private final int[] types;
+    private final int[] catalogues;
+    private final String[] names;
+    private final String[] brandValues;
+    private final String[] typeValues;
+    private final String[] catalogueValues;
+    private final long estimatedBytes;
+
+    private ItemColumns(long generation, int size, int[] itemIds, int[] catalogueIds, int[] brands, int[] types,
+                        int[] catalogues, String[] names,
+                        String[] brandValues, String[] typeValues, String[] catalogueValues) {
+        this.generation = generation;
+        this.size = size;
+        this.itemIds = itemIds;
+        this.catalogueIds = catalogueIds;
+        this.brands = brands;
+        this.types = types;
+        this.catalogues = catalogues;
+        this.names = names;
+        this.brandValues = brandValues;
+        this.typeValues = typeValues;
+        this.catalogueValues = catalogueValues;
+        this.estimatedBytes = estimateBytes();
+    }
+
+    public static ItemColumns empty() {
+        return new Builder(0).build(0);
+    }
+
+    public long getGeneration() {
+        return generation;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public long getEstimatedBytes() {
+        return estimatedBytes;
+    }
+
+    public int indexOf(long itemId) {
+        if (itemId < 0 || itemId > Integer.MAX_VALUE) {
+            return -1;
+        }
+        int row = Arrays.binarySearch(itemIds, 0, size, (int) itemId);
+        return row < 0 ? -1 : row;
+    }
+
+    public ItemElastic view(int row) {
+        return ItemElastic.builder()
+                .itemId((long) itemIds[row])
+                .catalogueId((long) catalogueIds[row])
+                .name(names[row])
+                .brand(decode(brandValues, brands[row]))
+                .type(decode(typeValues, types[row]))
+                .catalogue(decode(catalogueValues, catalogues[row]))
+                .build();
+    }
+
+    private static String decode(String[] values, int code) {
+        return code < 0 ? null : values[code];
+    }
+
+    private long estimateBytes() {
+        long bytes = 5L * (ARRAY_HEADER + 4L * size)
+                + 2L * (ARRAY_HEADER + (long) REFERENCE * size);
+        for (int i = 0; i < size; i++) {
+            bytes += stringBytes(names[i]);
+        }
+        for (String[] values : new String[][]{brandValues, typeValues, catalogueValues}) {
+            bytes += ARRAY_HEADER + (long) REFERENCE * values.length;
+            for (String value : values) {
+                bytes += stringBytes(value);
+            }
+        }
+        return bytes;
+    }
+
+    private static long stringBytes(String value) {
+        return value == null ? 0 : STRING_OVERHEAD + 2L * value.length();
+    }
+
+    public static class Builder {
+        private final StringDictionary brandDictionary = new StringDictionary();
+        private final StringDictionary typeDictionary = new StringDictionary();
+        private final StringDictionary catalogueDictionary = new StringDictionary();
+        private int size;
+        private int[] itemIds;
+        private int[] catalogueIds;
+        private int[] brands;
+        private int[] types;
+        private int[] catalogues;
+        private String[] names;
+
+        public Builder(int expectedSize) {
+            int capacity = Math.max(16, expectedSize);
+            itemIds = new int[capacity];
+            catalogueIds = new int[capacity];
+            brands = new int[capacity];
+            types = new int[capacity];
+            catalogues = new int[capacity];
+            names = new String[capacity];
+        }
+
+        public synchronized void add(ItemElastic item) {
+            long itemId = item.getItemId();
+            if (itemId < 0 || itemId > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("item_id вне диапазона: " + itemId);
+            }
+            long catalogueId = item.getCatalogueId() == null ? 0 : item.getCatalogueId();
+            if (catalogueId < 0 || catalogueId > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("catalogue_id вне диапазона: " + catalogueId);
+            }
+            if (size == itemIds.length) {
+                grow();
+            }
+            itemIds[size] = (int) itemId;
+            catalogueIds[size] = (int) catalogueId;
+            brands[size] = brandDictionary.encode(item.getBrand());
+            types[size] = typeDictionary.encode(item.getType());
+            catalogues[size] = catalogueDictionary.encode(item.getCatalogue());
+            names[size] = item.getName();
+            size++;
+        }
+
+        public synchronized ItemColumns build(long generation) {
+            long[] order = new long[size];
+            for (int i = 0; i < size; i++) {
+                order[i] = (long) itemIds[i] << 32 | i;
+            }
+            Arrays.sort(order);
+            int[] sortedItemIds = new int[size];
+            int[] sortedCatalogueIds = new int[size];
+            int[] sortedBrands = new int[size];
+            int[] sortedTypes = new int[size];
+            int[] sortedCatalogues = new int[size];
+            String[] sortedNames = new String[size];
+            for (int i = 0; i < size; i++) {
+                int row = (int) order[i];
+                sortedItemIds[i] = itemIds[row];
+                sortedCatalogueIds[i] = catalogueIds[row];
+                sortedBrands[i] = brands[row];
+                sortedTypes[i] = types[row];
+                sortedCatalogues[i] = catalogues[row];
+                sortedNames[i] = names[row];
+            }
+            return new ItemColumns(generation, size, sortedItemIds, sortedCatalogueIds, sortedBrands, sortedTypes,
+                    sortedCatalogues, sortedNames,
+                    brandDictionary.toArray(), typeDictionary.toArray(), catalogueDictionary.toArray());
+        }
+
+        private void grow() {
+            int capacity = itemIds.length * 2;
+            itemIds = Arrays.copyOf(itemIds, capacity);
+            catalogueIds = Arrays.copyOf(catalogueIds, capacity);
+            brands = Arrays.copyOf(brands, capacity);
+            types = Arrays.copyOf(types, capacity);
+            catalogues = Arrays.copyOf(catalogues, capacity);
+            names = Arrays.copyOf(names, capacity);
+        }
+    }
+}
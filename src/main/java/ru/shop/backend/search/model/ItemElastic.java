@@ -12,10 +12,6 @@ import org.springframework.data.elasticsearch.annotations.Document;
 import org.springframework.data.elasticsearch.annotations.Field;
 import org.springframework.data.elasticsearch.annotations.FieldType;
 
-import java.util.Arrays;
-import java.util.Locale;
-import java.util.stream.Collectors;
-
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
@@ -57,19 +53,6 @@ public class ItemElastic {
         this.type = entity.getType();
     }
     public String buildDescription(String description){
-        return Arrays.stream(description.split(";")).map(
-                d -> {
-                    d = d.toLowerCase(Locale.ROOT);
-                    if(d.contains(": нет"))
-                        return null;
-                    if(d.contains(": -"))
-                        return null;
-                    if(d.contains(": есть"))
-                        return d.replace(": есть", "");
-                    if(d.contains(": 0 "))
-                        return null;
-                    return d.replace(":","");
-                }
-        ).filter( d -> d != null).collect(Collectors.joining());
+        return DescriptionScanner.build(description);
     }
 }
\ No newline at end of file
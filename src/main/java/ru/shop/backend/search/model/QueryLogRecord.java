@@ -0,0 +1,27 @@
+package ru.shop.backend.search.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class QueryLogRecord {
+    private long timestamp;
+    private Endpoint endpoint;
+    private int regionId;
+    private String text;
+
+    public enum Endpoint {
+        FIND("/api/search"), FIND_BY("/api/search/by");
+
+        private final String path;
+
+        Endpoint(String path) {
+            this.path = path;
+        }
+
+        public String getPath() {
+            return path;
+        }
+    }
+}
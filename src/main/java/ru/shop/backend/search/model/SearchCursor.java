@@ -0,0 +1,62 @@
+package ru.shop.backend.search.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.ToIntFunction;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class SearchCursor {
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final int SORT_VALUES = 2;
+
+    private String query;
+    private List<String> args;
+    private String name;
+    private String brand;
+    private List<Object> searchAfter;
+
+    public SearchCursor(String query, String name, String brand, String... args) {
+        this(query, Arrays.asList(args), name, brand, null);
+    }
+
+    public SearchCursor next(List<Object> sortValues) {
+        return new SearchCursor(query, args, name, brand, sortValues);
+    }
+
+    public String encode() {
+        try {
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(MAPPER.writeValueAsBytes(this));
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public static SearchCursor decode(String token, ToIntFunction<String> arity) {
+        SearchCursor cursor;
+        try {
+            cursor = MAPPER.readValue(Base64.getUrlDecoder().decode(token), SearchCursor.class);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Некорректный курсор", e);
+        }
+        if (cursor.getQuery() == null || cursor.getArgs() == null
+                || cursor.getName() == null || cursor.getBrand() == null
+                || cursor.getArgs().size() != arity.applyAsInt(cursor.getQuery())
+                || cursor.getSearchAfter() != null && cursor.getSearchAfter().size() != SORT_VALUES) {
+            throw new IllegalArgumentException("Некорректный курсор");
+        }
+        return cursor;
+    }
+}
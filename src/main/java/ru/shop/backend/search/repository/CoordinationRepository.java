@@ -0,0 +1,26 @@
+package ru.shop.backend.search.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+@Repository
+@RequiredArgsConstructor
+public class CoordinationRepository {
+    public static final String GENERATION_SEQUENCE = "search_invalidation_generation";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public long notify(String channel, String topic) {
+        Long generation = jdbcTemplate.queryForObject("" +
+                "select g.n from (select nextval('" + GENERATION_SEQUENCE + "') as n) g,\n" +
+                "pg_notify(?, ? || ':' || g.n)", Long.class, channel, topic);
+        return generation == null ? 0 : generation;
+    }
+
+    public long currentGeneration() {
+        Long generation = jdbcTemplate.queryForObject("" +
+                "select case when is_called then last_value else 0 end from " + GENERATION_SEQUENCE, Long.class);
+        return generation == null ? 0 : generation;
+    }
+}
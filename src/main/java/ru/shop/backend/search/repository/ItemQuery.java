@@ -0,0 +1,160 @@
+package ru.shop.backend.search.repository;
+
+import java.util.List;
+
+public enum ItemQuery {
+    FIND("{\n" +
+            "    \"multi_match\": {\n" +
+            "      \"fields\":  [ \"type^2\", \"name^2\", \"description\"],\n" +
+            "      \"operator\":   \"AND\",\n" +
+            "        \"query\" : \"?0\",\n" +
+            "      \"fuzziness\" :1, \n" +
+            "        \"boost\": \"1\",\n" +
+            "       \"analyzer\" : \"russian\"\n" +
+            "      }\n" +
+            "    }\n"),
+    FIND_BY_BRAND("{\n" +
+            "\"bool\": { \n" +
+            "      \"must\": [\n" +
+            "        {\n" +
+            "        \"multi_match\": {\n" +
+            "          \"query\": \"?0\",\n" +
+            "        \"fuzziness\": \"1\",\n" +
+            "        \"boost\": \"1\",\n" +
+            "       \"analyzer\" : \"russian\",\n" +
+            "\"operator\":   \"AND\" ,\n" +
+            "          \"fields\": [\n" +"\"name^4\", \"description\", \"type\"\n" +
+            "          ]\n" +
+            "        }\n" +
+            "      }    ],\n" +
+            "      \n" +
+            "      \"filter\":  [{\"match\":{\n" +
+            "                    \"brand\": \n" +
+            "                        \"?1\"}\n" +
+            "                    }]\n" +
+            "      \n" +
+            "    }\n" +
+            "}"),
+    FIND_NOT_STRONG("{\"match\": {\n" +
+            "      \"fulltext\": {\n" +
+            "        \"query\": \"?0\",\n" +
+            "        \"fuzziness\": \"2\"\n" +
+            "      }\n" +
+            "    }}"),
+    FIND_BY_TYPE("{\n" +
+            "\"bool\": { \n" +
+            "      \"must\": [\n" +
+            "        {\n" +
+            "        \"multi_match\": {\n" +
+            "          \"query\": \"?0\",\n" +
+            "        \"fuzziness\": \"1\",\n" +
+            "        \"boost\": \"1\",\n" +
+            "       \"analyzer\" : \"russian\",\n" +
+            "\"operator\":   \"AND\" ,\n" +
+            "          \"fields\": [\n" +"\"name^4\", \"description\", \"type\"\n" +
+            "          ]\n" +
+            "        }\n" +
+            "      }    ],\n" +
+            "      \n" +
+            "      \"filter\":  [{\"match\":{\n" +
+            "                    \"type\": \n" +
+            "                        \"?1\"}\n" +
+            "                    }]\n" +
+            "    }\n" +
+            "}"),
+    FIND_BY_TYPE_AND_BRAND("{\n" +
+            "\"bool\": { \n" +
+            "      \"must\": [\n" +
+            "        {\n" +
+            "        \"multi_match\": {\n" +
+            "          \"query\": \"?0\",\n" +
+            "\t\t\t\"fuzziness\" :2,\n" +
+            "        \"boost\": \"1\",\n" +
+            "       \"analyzer\" : \"russian\",\n" +
+            "\"operator\":   \"AND\" ,\n" +
+            "          \"fields\": [\n" +"\"name^4\", \"description\", \"type\"\n" +
+            "          ]\n" +
+            "        }\n" +
+            "      }    ],\n" +
+            "      \n" +
+            "      \"filter\":  [{\"match\":{\n" +
+            "                    \"brand\": \n" +
+            "                        \"?1\"}\n" +
+            "                    }]\n" +
+            "    }\n" +
+            "}"),
+    FIND_BY_CATALOGUE("{\n" +
+            "\"bool\": { \n" +
+            "      \"must\": [\n" +
+            "{\"match\": {\n" +
+            "      \"type\": {\n" +
+            "        \"query\": \"?0\",\n" +
+            "        \"fuzziness\": \"2\",\n" +
+            "        \"boost\": \"1\"\n" +
+            "      }\n" +
+            "    }}  ],\n" +
+            "      \n" +
+            "      \"filter\":  [{\"match\":{\n" +
+            "                    \"catalogueId\": \n" +
+            "                        \"?1\"}\n" +
+            "                    }]\n" +
+            "    }\n" +
+            "}"),
+    FIND_BY_CATALOGUE_AND_TYPE("{\n" +
+            "\"bool\": { \n" +
+            "      \"must\": [\n" +
+            "{\"match\": {\n" +
+            "      \"type\": {\n" +
+            "        \"query\": \"?0\",\n" +
+            "        \"fuzziness\": \"2\"\n" +
+            "      }\n" +
+            "    }}  ],\n" +
+            "      \n" +
+            "      \"filter\":  [{\"match\":{\n" +
+            "                    \"type\": \n" +
+            "                        \"?2\"}\n" +
+            "                    },{\"match\":{\n" +
+            "                    \"catalogueId\": \n" +
+            "                        \"?1\"}\n" +
+            "                    }]\n" +
+            "    }\n" +
+            "}");
+
+    private final String template;
+    private final int arity;
+
+    ItemQuery(String template) {
+        this.template = template;
+        int arity = 0;
+        for (int i = 0; i + 1 < template.length(); i++) {
+            if (template.charAt(i) == '?' && Character.isDigit(template.charAt(i + 1))) {
+                arity = Math.max(arity, template.charAt(i + 1) - '0' + 1);
+            }
+        }
+        this.arity = arity;
+    }
+
+    public int getArity() {
+        return arity;
+    }
+
+    public String bind(List<String> args) {
+        StringBuilder query = new StringBuilder(template.length() + 64);
+        for (int i = 0; i < template.length(); i++) {
+            char c = template.charAt(i);
+            if (c == '?' && i + 1 < template.length() && Character.isDigit(template.charAt(i + 1))) {
+                query.append(escape(args.get(template.charAt(++i) - '0')));
+            } else {
+                query.append(c);
+            }
+        }
+        return query.toString();
+    }
+
+    private static String escape(String value) {
+        if (value == null) {
+            return "null";
+        }
+        return value.replace("\\", "\\\\").replace("\"", "\\\"");
+    }
+}
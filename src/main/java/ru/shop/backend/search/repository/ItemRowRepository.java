@@ -0,0 +1,12 @@
+package ru.shop.backend.search.repository;
+
+import ru.shop.backend.search.model.Category;
+import ru.shop.backend.search.model.Item;
+
+import java.util.List;
+
+public interface ItemRowRepository {
+    List<Item> findByIds(Integer regionId, List<Long> ids);
+
+    List<Category> findCatsByIds(List<Integer> ids);
+}
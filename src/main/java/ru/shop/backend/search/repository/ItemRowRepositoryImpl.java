@@ -0,0 +1,62 @@
+package ru.shop.backend.search.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import ru.shop.backend.search.model.Category;
+import ru.shop.backend.search.model.Item;
+
+import java.util.Collections;
+import java.util.List;
+
+@RequiredArgsConstructor
+public class ItemRowRepositoryImpl implements ItemRowRepository {
+    private static final String FIND_BY_IDS = "select i.item_id, i.name, r.price, i.itemurl as url, i as image ,\n" +
+            " i.type from item as i\n" +
+            "join remain as r on r.item_id = i.item_id and r.region_id = ?\n" +
+            "where i.item_id = any(?)";
+
+    private static final String FIND_CATS_BY_IDS = "" +
+            "select distinct c.name, cp.name as parent_name, c.realcatname as url , cp.realcatname as parent_url,\n" +
+            "c.image\n" +
+            "from item as i\n" +
+            "join catalogue as c using(catalogue_id)\n" +
+            "join catalogue cp on cp.catalogue_id  = c.parent_id  where i.item_id = any(?)";
+
+    private static final RowMapper<Item> ITEM_MAPPER = (rs, rowNum) -> new Item(
+            rs.getInt(3),
+            rs.getString(2),
+            rs.getString(4),
+            rs.getString(5),
+            rs.getInt(1),
+            rs.getString(6));
+
+    private static final RowMapper<Category> CATEGORY_MAPPER = (rs, rowNum) -> new Category(
+            rs.getString(1),
+            rs.getString(2),
+            rs.getString(3),
+            rs.getString(4),
+            rs.getString(5));
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public List<Item> findByIds(Integer regionId, List<Long> ids) {
+        if (ids.isEmpty()) {
+            return Collections.emptyList();
+        }
+        return jdbcTemplate.query(FIND_BY_IDS, ps -> {
+            ps.setInt(1, regionId);
+            ps.setArray(2, ps.getConnection().createArrayOf("bigint", ids.toArray()));
+        }, ITEM_MAPPER);
+    }
+
+    @Override
+    public List<Category> findCatsByIds(List<Integer> ids) {
+        if (ids.isEmpty()) {
+            return Collections.emptyList();
+        }
+        return jdbcTemplate.query(FIND_CATS_BY_IDS, ps ->
+                ps.setArray(1, ps.getConnection().createArrayOf("bigint", ids.toArray())), CATEGORY_MAPPER);
+    }
+}
@@ -0,0 +1,9 @@
+package ru.shop.backend.search.repository;
+
+import org.springframework.data.elasticsearch.core.SearchHits;
+import ru.shop.backend.search.model.ItemElastic;
+import ru.shop.backend.search.model.SearchCursor;
+
+public interface ItemSearchRepository {
+    SearchHits<ItemElastic> search(SearchCursor cursor, int size);
+}
@@ -0,0 +1,25 @@
+package ru.shop.backend.search.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.SearchHits;
+import org.springframework.data.elasticsearch.core.query.StringQuery;
+import ru.shop.backend.search.model.ItemElastic;
+import ru.shop.backend.search.model.SearchCursor;
+
+@RequiredArgsConstructor
+public class ItemSearchRepositoryImpl implements ItemSearchRepository {
+    private static final Sort SORT = Sort.by(Sort.Order.desc("_score"), Sort.Order.asc("itemId"));
+
+    private final ElasticsearchOperations operations;
+
+    @Override
+    public SearchHits<ItemElastic> search(SearchCursor cursor, int size) {
+        StringQuery query = new StringQuery(ItemQuery.valueOf(cursor.getQuery()).bind(cursor.getArgs()), PageRequest.of(0, size), SORT);
+        query.setSearchAfter(cursor.getSearchAfter());
+        query.setTrackTotalHits(false);
+        return operations.search(query, ItemElastic.class);
+    }
+}
@@ -0,0 +1,12 @@
+package ru.shop.backend.search.repository;
+
+import ru.shop.backend.search.model.ItemEntity;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+public interface ItemStreamRepository {
+    Stream<ItemEntity> findAllInStream(int fetchSize);
+
+    List<ItemEntity> findPageAfter(long itemId, int limit);
+}
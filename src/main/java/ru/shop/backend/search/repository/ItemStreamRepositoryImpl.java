@@ -0,0 +1,38 @@
+package ru.shop.backend.search.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.hibernate.jpa.QueryHints;
+import org.springframework.transaction.annotation.Transactional;
+import ru.shop.backend.search.model.ItemEntity;
+
+import javax.persistence.EntityManager;
+import java.util.List;
+import java.util.stream.Stream;
+
+@RequiredArgsConstructor
+public class ItemStreamRepositoryImpl implements ItemStreamRepository {
+    private static final String FIND_ALL = "select i.* from item as i";
+    private static final String FIND_PAGE_AFTER = "select i.* from item as i where i.item_id > ? order by i.item_id limit ?";
+
+    private final EntityManager entityManager;
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Stream<ItemEntity> findAllInStream(int fetchSize) {
+        return entityManager.createNativeQuery(FIND_ALL, ItemEntity.class)
+                .setHint(QueryHints.HINT_FETCH_SIZE, fetchSize)
+                .setHint(QueryHints.HINT_READONLY, true)
+                .getResultStream();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    @SuppressWarnings("unchecked")
+    public List<ItemEntity> findPageAfter(long itemId, int limit) {
+        return entityManager.createNativeQuery(FIND_PAGE_AFTER, ItemEntity.class)
+                .setParameter(1, itemId)
+                .setParameter(2, limit)
+                .setHint(QueryHints.HINT_READONLY, true)
+                .getResultList();
+    }
+}
@@ -0,0 +1,168 @@
+package ru.shop.backend.search.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+import ru.shop.backend.search.repository.CoordinationRepository;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongConsumer;
+import java.util.function.Supplier;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class InvalidationBus {
+    public static final String CHANNEL = "search_invalidation";
+    private static final int POLL_TIMEOUT_MS = 500;
+    private static final int VALIDATE_EVERY_POLLS = 20;
+    private static final int VALIDATION_TIMEOUT_S = 5;
+
+    public enum Topic {
+        ITEMS, PRICES, CATEGORIES
+    }
+
+    private final DataSourceProperties dataSourceProperties;
+    private final CoordinationRepository coordination;
+    private final Map<Topic, List<LongConsumer>> subscribers = perTopic(CopyOnWriteArrayList::new);
+    private final Map<Topic, AtomicLong> generations = perTopic(AtomicLong::new);
+
+    @Value("${invalidation.enabled:false}")
+    private boolean enabled;
+
+    private volatile boolean running;
+    private Thread listener;
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        running = true;
+        listener = new Thread(this::listen, "invalidation-listener");
+        listener.setDaemon(true);
+        listener.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        if (listener != null) {
+            listener.join(TimeUnit.SECONDS.toMillis(2));
+        }
+    }
+
+    public void subscribe(Topic topic, LongConsumer onGeneration) {
+        subscribers.get(topic).add(onGeneration);
+    }
+
+    public long generation(Topic topic) {
+        return generations.get(topic).get();
+    }
+
+    public long publish(Topic topic) {
+        if (!enabled) {
+            long generation = generations.get(topic).get() + 1;
+            apply(topic, generation);
+            return generation;
+        }
+        return coordination.notify(CHANNEL, topic.name());
+    }
+
+    private static <T> Map<Topic, T> perTopic(Supplier<T> factory) {
+        Map<Topic, T> map = new EnumMap<>(Topic.class);
+        for (Topic topic : Topic.values()) {
+            map.put(topic, factory.get());
+        }
+        return map;
+    }
+
+    private void listen() {
+        boolean reconnect = false;
+        while (running) {
+            try (Connection connection = DriverManager.getConnection(dataSourceProperties.determineUrl(),
+                    dataSourceProperties.determineUsername(), dataSourceProperties.determinePassword())) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + CHANNEL);
+                }
+                log.info("подписка на канал {} установлена", CHANNEL);
+                long current = coordination.currentGeneration();
+                for (Topic topic : Topic.values()) {
+                    if (reconnect) {
+                        apply(topic, current);
+                    } else {
+                        generations.get(topic).accumulateAndGet(current, Math::max);
+                    }
+                }
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                int polls = 0;
+                while (running) {
+                    if (++polls % VALIDATE_EVERY_POLLS == 0 && !connection.isValid(VALIDATION_TIMEOUT_S)) {
+                        throw new SQLException("соединение с каналом " + CHANNEL + " не отвечает");
+                    }
+                    PGNotification[] notifications = pgConnection.getNotifications(POLL_TIMEOUT_MS);
+                    if (notifications != null) {
+                        for (PGNotification notification : notifications) {
+                            dispatch(notification.getParameter());
+                        }
+                    }
+                }
+            } catch (SQLException | DataAccessException e) {
+                log.warn("потеряно соединение с каналом {}, переподключение", CHANNEL, e);
+                reconnect = true;
+                try {
+                    Thread.sleep(TimeUnit.SECONDS.toMillis(1));
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private void dispatch(String payload) {
+        int separator = payload.indexOf(':');
+        if (separator < 0) {
+            log.warn("некорректное сообщение в канале {}: {}", CHANNEL, payload);
+            return;
+        }
+        try {
+            Topic topic = Topic.valueOf(payload.substring(0, separator));
+            apply(topic, Long.parseLong(payload.substring(separator + 1)));
+        } catch (IllegalArgumentException e) {
+            log.warn("некорректное сообщение в канале {}: {}", CHANNEL, payload);
+        }
+    }
+
+    private void apply(Topic topic, long generation) {
+        AtomicLong current = generations.get(topic);
+        long previous = current.getAndAccumulate(generation, Math::max);
+        if (generation <= previous) {
+            return;
+        }
+        log.debug("поколение {} обновлено до {}", topic, generation);
+        for (LongConsumer subscriber : subscribers.get(topic)) {
+            try {
+                subscriber.accept(generation);
+            } catch (RuntimeException e) {
+                log.warn("ошибка обработчика инвалидации {}", topic, e);
+            }
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package ru.shop.backend.search.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import ru.shop.backend.search.model.ItemColumns;
+import ru.shop.backend.search.model.ItemElastic;
+
+@Component
+@Slf4j
+public class ItemStore {
+    private volatile ItemColumns columns = ItemColumns.empty();
+
+    public ItemStore(MeterRegistry registry) {
+        Gauge.builder("item.store.items", this, s -> s.columns.size()).register(registry);
+        Gauge.builder("item.store.bytes", this, s -> s.columns.getEstimatedBytes()).baseUnit("bytes").register(registry);
+    }
+
+    public ItemColumns getColumns() {
+        return columns;
+    }
+
+    public long getGeneration() {
+        return columns.getGeneration();
+    }
+
+    public ItemElastic find(long itemId) {
+        ItemColumns current = columns;
+        int row = current.indexOf(itemId);
+        return row < 0 ? null : current.view(row);
+    }
+
+    public synchronized boolean replace(ItemColumns next) {
+        if (next.getGeneration() < columns.getGeneration()) {
+            return false;
+        }
+        columns = next;
+        log.info("хранилище товаров обновлено: {} товаров, ~{} КБ, ~{} МБ на миллион товаров",
+                next.size(), next.getEstimatedBytes() / 1024,
+                next.size() == 0 ? 0 : next.getEstimatedBytes() * 1_000_000 / next.size() / (1024 * 1024));
+        return true;
+    }
+}
@@ -0,0 +1,93 @@
+package ru.shop.backend.search.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.shop.backend.search.model.ItemColumns;
+import ru.shop.backend.search.model.ItemEntity;
+import ru.shop.backend.search.repository.ItemDbRepository;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ItemStoreLoader {
+    private final ItemDbRepository dbRepository;
+    private final ItemStore itemStore;
+    private final InvalidationBus invalidationBus;
+    private final TransactionTemplate readOnlyTransactionTemplate;
+    private final ItemTransformStage transformStage;
+    private final AtomicLong pending = new AtomicLong();
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "item-store-loader");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @Value("${item.store.enabled:false}")
+    private boolean enabled;
+    @Value("${item.store.reload-debounce-ms:2000}")
+    private long debounceMs;
+
+    @PostConstruct
+    public void subscribe() {
+        if (enabled) {
+            invalidationBus.subscribe(InvalidationBus.Topic.ITEMS, this::request);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void request(long generation) {
+        pending.accumulateAndGet(generation, Math::max);
+        if (scheduled.compareAndSet(false, true)) {
+            executor.schedule(this::reload, debounceMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void reload() {
+        scheduled.set(false);
+        long generation = pending.get();
+        if (generation <= itemStore.getGeneration()) {
+            return;
+        }
+        try {
+            load(generation);
+        } catch (RuntimeException | OutOfMemoryError e) {
+            log.warn("не удалось загрузить хранилище товаров, поколение {}", generation, e);
+        }
+    }
+
+    public void load(long generation) {
+        if (generation < itemStore.getGeneration()) {
+            return;
+        }
+        log.info("загрузка хранилища товаров из базы, поколение {}", generation);
+        ItemColumns columns = readOnlyTransactionTemplate.execute(status -> {
+            ItemColumns.Builder builder = new ItemColumns.Builder((int) dbRepository.countAll());
+            try (Stream<ItemEntity> stream = dbRepository.findAllInStream(transformStage.getChunkSize())) {
+                transformStage.transform(stream, items -> items.forEach(builder::add));
+            }
+            return builder.build(generation);
+        });
+        itemStore.replace(columns);
+    }
+}
@@ -0,0 +1,127 @@
+package ru.shop.backend.search.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.shop.backend.search.model.ItemElastic;
+import ru.shop.backend.search.model.ItemEntity;
+
+import javax.annotation.PreDestroy;
+import javax.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+@Component
+@Slf4j
+public class ItemTransformStage {
+    private final EntityManager entityManager;
+    private final ForkJoinPool pool;
+    private final int chunkSize;
+    private volatile double lastChunkRate;
+
+    public ItemTransformStage(EntityManager entityManager, MeterRegistry registry,
+                              @Value("${reindex.transform.parallelism:0}") int parallelism,
+                              @Value("${reindex.transform.chunk-size:5000}") int chunkSize) {
+        this.entityManager = entityManager;
+        this.pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+        this.chunkSize = chunkSize;
+        Gauge.builder("reindex.transform.rate", this, s -> s.lastChunkRate).baseUnit("items/s").register(registry);
+    }
+
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+
+    public void transform(Stream<ItemEntity> source, Consumer<List<ItemElastic>> sink) {
+        Iterator<ItemEntity> entities = source.iterator();
+        transform(new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return entities.hasNext();
+            }
+
+            @Override
+            public List<ItemEntity> next() {
+                return read(entities);
+            }
+        }, sink);
+    }
+
+    public void transform(Iterator<List<ItemEntity>> chunks, Consumer<List<ItemElastic>> sink) {
+        ForkJoinTask<Chunk> pending = null;
+        int chunkNumber = 0;
+        while (chunks.hasNext()) {
+            List<ItemEntity> chunk = chunks.next();
+            if (chunk.isEmpty()) {
+                continue;
+            }
+            ForkJoinTask<Chunk> next = pool.submit(() -> convert(chunk));
+            if (pending != null) {
+                sink.accept(join(pending, ++chunkNumber));
+            }
+            pending = next;
+        }
+        if (pending != null) {
+            sink.accept(join(pending, ++chunkNumber));
+        }
+    }
+
+    private List<ItemEntity> read(Iterator<ItemEntity> entities) {
+        List<ItemEntity> chunk = new ArrayList<>(chunkSize);
+        while (chunk.size() < chunkSize && entities.hasNext()) {
+            ItemEntity entity = entities.next();
+            entityManager.detach(entity);
+            chunk.add(entity);
+        }
+        return chunk;
+    }
+
+    private Chunk convert(List<ItemEntity> entities) {
+        long start = System.nanoTime();
+        List<ItemElastic> items = entities.parallelStream()
+                .map(ItemElastic::new)
+                .collect(Collectors.toList());
+        return new Chunk(items, items.size() * 1_000_000_000.0 / Math.max(1, System.nanoTime() - start));
+    }
+
+    private List<ItemElastic> join(ForkJoinTask<Chunk> task, int chunkNumber) {
+        try {
+            Chunk chunk = task.get();
+            lastChunkRate = chunk.rate;
+            log.debug("пачка {}: {} товаров, {} товаров/с", chunkNumber, chunk.items.size(), (long) chunk.rate);
+            return chunk.items;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Преобразование товаров прервано", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private static class Chunk {
+        private final List<ItemElastic> items;
+        private final double rate;
+
+        private Chunk(List<ItemElastic> items, double rate) {
+            this.items = items;
+            this.rate = rate;
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package ru.shop.backend.search.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class LeaderLock {
+    private static final int VALIDATION_TIMEOUT_S = 2;
+
+    private final DataSourceProperties dataSourceProperties;
+
+    private Connection connection;
+
+    public synchronized boolean tryAcquire(long key) {
+        try {
+            if (connection != null && connection.isValid(VALIDATION_TIMEOUT_S)) {
+                return true;
+            }
+        } catch (SQLException e) {
+            log.debug("соединение ведущего недействительно", e);
+        }
+        release();
+        Connection candidate = null;
+        try {
+            candidate = DriverManager.getConnection(dataSourceProperties.determineUrl(),
+                    dataSourceProperties.determineUsername(), dataSourceProperties.determinePassword());
+            if (lock(candidate, key)) {
+                connection = candidate;
+                log.info("узел стал ведущим по блокировке {}", key);
+                return true;
+            }
+            return false;
+        } catch (SQLException e) {
+            log.warn("не удалось получить блокировку ведущего {}", key, e);
+            return false;
+        } finally {
+            if (candidate != null && candidate != connection) {
+                close(candidate);
+            }
+        }
+    }
+
+    @PreDestroy
+    public synchronized void release() {
+        if (connection != null) {
+            close(connection);
+            connection = null;
+        }
+    }
+
+    private static boolean lock(Connection candidate, long key) throws SQLException {
+        try (PreparedStatement statement = candidate.prepareStatement("select pg_try_advisory_lock(?)")) {
+            statement.setLong(1, key);
+            try (ResultSet rs = statement.executeQuery()) {
+                return rs.next() && rs.getBoolean(1);
+            }
+        }
+    }
+
+    private static void close(Connection connection) {
+        try {
+            connection.close();
+        } catch (SQLException e) {
+            log.debug("ошибка при закрытии соединения ведущего", e);
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package ru.shop.backend.search.service;
+
+import ru.shop.backend.search.model.QueryLogRecord;
+
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+public class QueryLogReader implements Closeable {
+    private static final QueryLogRecord.Endpoint[] ENDPOINTS = QueryLogRecord.Endpoint.values();
+
+    private final DataInputStream in;
+    private long lastTimestamp;
+    private long records;
+    private boolean truncated;
+
+    public QueryLogReader(InputStream in) throws IOException {
+        this.in = new DataInputStream(in);
+        if (this.in.readInt() != QueryLogWriter.MAGIC) {
+            throw new IOException("Файл не является журналом запросов");
+        }
+        byte version = this.in.readByte();
+        if (version != QueryLogWriter.VERSION) {
+            throw new IOException("Неподдерживаемая версия журнала запросов: " + version);
+        }
+        this.lastTimestamp = this.in.readLong();
+    }
+
+    public QueryLogRecord read() throws IOException {
+        int first = in.read();
+        if (first < 0) {
+            return null;
+        }
+        try {
+            long delta = readVarLong(first);
+            int ordinal = in.readUnsignedByte();
+            if (ordinal >= ENDPOINTS.length) {
+                throw corrupt("неизвестный адрес " + ordinal);
+            }
+            long regionId = readVarLong(in.readUnsignedByte());
+            if (regionId != (int) regionId) {
+                throw corrupt("регион " + regionId);
+            }
+            long length = readVarLong(in.readUnsignedByte());
+            if (length < 0 || length > QueryLogWriter.MAX_TEXT_BYTES) {
+                throw corrupt("длина текста " + length);
+            }
+            byte[] text = new byte[(int) length];
+            in.readFully(text);
+            lastTimestamp += delta;
+            records++;
+            return new QueryLogRecord(lastTimestamp, ENDPOINTS[ordinal], (int) regionId,
+                    new String(text, StandardCharsets.UTF_8));
+        } catch (EOFException e) {
+            truncated = true;
+            return null;
+        }
+    }
+
+    public long getRecords() {
+        return records;
+    }
+
+    public boolean isTruncated() {
+        return truncated;
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    private long readVarLong(int first) throws IOException {
+        long value = first & 0x7F;
+        int shift = 7;
+        int b = first;
+        while ((b & 0x80) != 0) {
+            if (shift > 63) {
+                throw corrupt("слишком длинное число");
+            }
+            b = in.read();
+            if (b < 0) {
+                throw new EOFException();
+            }
+            value |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        }
+        return value;
+    }
+
+    private IOException corrupt(String reason) {
+        return new IOException("Повреждена запись журнала запросов №" + (records + 1) + ": " + reason);
+    }
+}
@@ -0,0 +1,157 @@
+package ru.shop.backend.search.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import ru.shop.backend.search.model.QueryLogRecord;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+@Component
+@Slf4j
+public class QueryLogRecorder {
+    @Value("${querylog.sample-rate:0}")
+    private double sampleRate;
+    @Value("${querylog.dir:/var/local/querylog}")
+    private String dir;
+    @Value("${querylog.queue-size:10000}")
+    private int queueSize;
+    @Value("${querylog.max-file-size:10MB}")
+    private DataSize maxFileSize;
+    @Value("${querylog.total-size-cap:70MB}")
+    private DataSize totalSizeCap;
+
+    private volatile BlockingQueue<QueryLogRecord> queue;
+    private Thread writerThread;
+    private volatile boolean running;
+    private final AtomicLong dropped = new AtomicLong();
+
+    @PostConstruct
+    public void start() throws IOException {
+        if (sampleRate <= 0) {
+            return;
+        }
+        Files.createDirectories(Paths.get(dir));
+        QueryLogWriter writer = open();
+        trim();
+        queue = new ArrayBlockingQueue<>(queueSize);
+        running = true;
+        writerThread = new Thread(() -> drain(writer), "querylog-writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+        log.info("журнал запросов пишется в {} с долей выборки {}, файлы до {}, всего до {}",
+                dir, sampleRate, maxFileSize, totalSizeCap);
+    }
+
+    public void record(QueryLogRecord.Endpoint endpoint, int regionId, String text) {
+        BlockingQueue<QueryLogRecord> queue = this.queue;
+        if (queue == null || text == null || ThreadLocalRandom.current().nextDouble() >= sampleRate) {
+            return;
+        }
+        if (!queue.offer(new QueryLogRecord(System.currentTimeMillis(), endpoint, regionId, text))) {
+            dropped.incrementAndGet();
+        }
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        if (writerThread == null) {
+            return;
+        }
+        running = false;
+        writerThread.join(TimeUnit.SECONDS.toMillis(5));
+        if (dropped.get() > 0) {
+            log.warn("журнал запросов: отброшено {} записей из-за переполнения очереди или слишком длинного текста", dropped.get());
+        }
+    }
+
+    private void drain(QueryLogWriter first) {
+        List<QueryLogRecord> batch = new ArrayList<>();
+        QueryLogWriter writer = first;
+        try {
+            while (running || !queue.isEmpty()) {
+                QueryLogRecord head = queue.poll(1, TimeUnit.SECONDS);
+                if (head == null) {
+                    writer.flush();
+                    continue;
+                }
+                batch.add(head);
+                queue.drainTo(batch);
+                for (QueryLogRecord record : batch) {
+                    if (!writer.write(record)) {
+                        dropped.incrementAndGet();
+                    }
+                    if (writer.size() >= maxFileSize.toBytes()) {
+                        writer.close();
+                        writer = open();
+                        trim();
+                    }
+                }
+                batch.clear();
+            }
+        } catch (IOException e) {
+            log.error("ошибка записи журнала запросов, запись остановлена", e);
+            queue = null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            close(writer);
+        }
+    }
+
+    private QueryLogWriter open() throws IOException {
+        long now = System.currentTimeMillis();
+        Path path = Paths.get(dir).resolve("queries-" + now + ".qlog");
+        while (Files.exists(path)) {
+            path = Paths.get(dir).resolve("queries-" + ++now + ".qlog");
+        }
+        return new QueryLogWriter(new BufferedOutputStream(Files.newOutputStream(path), 64 * 1024), now);
+    }
+
+    private void trim() throws IOException {
+        List<Path> files;
+        try (Stream<Path> list = Files.list(Paths.get(dir))) {
+            files = list.filter(path -> path.getFileName().toString().matches("queries-\\d+\\.qlog"))
+                    .sorted(Comparator.comparingLong(QueryLogRecorder::startedAt).reversed())
+                    .collect(Collectors.toList());
+        }
+        long total = 0;
+        for (int i = 0; i < files.size(); i++) {
+            total += Files.size(files.get(i));
+            if (i > 0 && total > totalSizeCap.toBytes()) {
+                Files.deleteIfExists(files.get(i));
+                log.debug("журнал запросов: удалён старый файл {}", files.get(i));
+            }
+        }
+    }
+
+    private static long startedAt(Path path) {
+        String name = path.getFileName().toString();
+        return Long.parseLong(name.substring("queries-".length(), name.length() - ".qlog".length()));
+    }
+
+    private static void close(QueryLogWriter writer) {
+        try {
+            writer.close();
+        } catch (IOException e) {
+            log.warn("не удалось закрыть журнал запросов", e);
+        }
+    }
+}
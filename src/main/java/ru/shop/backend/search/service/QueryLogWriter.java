@@ -0,0 +1,61 @@
+package ru.shop.backend.search.service;
+
+import ru.shop.backend.search.model.QueryLogRecord;
+
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+public class QueryLogWriter implements Closeable {
+    static final int MAGIC = 0x514C4F47;
+    static final byte VERSION = 1;
+    static final int MAX_TEXT_BYTES = 64 * 1024;
+
+    private final DataOutputStream out;
+    private long lastTimestamp;
+
+    public QueryLogWriter(OutputStream out, long baseTimestamp) throws IOException {
+        this.out = new DataOutputStream(out);
+        this.lastTimestamp = baseTimestamp;
+        this.out.writeInt(MAGIC);
+        this.out.writeByte(VERSION);
+        this.out.writeLong(baseTimestamp);
+    }
+
+    public boolean write(QueryLogRecord record) throws IOException {
+        byte[] text = record.getText().getBytes(StandardCharsets.UTF_8);
+        if (text.length > MAX_TEXT_BYTES) {
+            return false;
+        }
+        writeVarLong(Math.max(0, record.getTimestamp() - lastTimestamp));
+        lastTimestamp = Math.max(lastTimestamp, record.getTimestamp());
+        out.writeByte(record.getEndpoint().ordinal());
+        writeVarLong(record.getRegionId());
+        writeVarLong(text.length);
+        out.write(text);
+        return true;
+    }
+
+    public long size() {
+        return out.size();
+    }
+
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+
+    private void writeVarLong(long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+}
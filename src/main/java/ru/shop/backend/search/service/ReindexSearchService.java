@@ -2,31 +2,132 @@ package ru.shop.backend.search.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.TaskScheduler;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import ru.shop.backend.search.model.ItemElastic;
+import ru.shop.backend.search.model.ItemEntity;
 import ru.shop.backend.search.repository.ItemDbRepository;
 import ru.shop.backend.search.repository.ItemRepository;
 
-import javax.transaction.Transactional;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class ReindexSearchService {
+    private static final long REINDEX_LOCK = 0x5EA2C4L;
+
     private final ItemDbRepository dbRepository;
     private final ItemRepository searchRepository;
-    @Scheduled(fixedDelay = 43200000)
-    @Transactional
+    private final ReindexThrottle throttle;
+    private final LeaderLock leaderLock;
+    private final InvalidationBus invalidationBus;
+    private final ItemTransformStage transformStage;
+    private final TaskScheduler taskScheduler;
+    @Value("${reindex.batch-size:500}")
+    private int batchSize;
+    @Value("${reindex.retry-delay-ms:1800000}")
+    private long retryDelayMs;
+
+    @Scheduled(initialDelayString = "${reindex.initial-delay-ms:300000}", fixedDelay = 43200000)
     public void reindex(){
+        if (!leaderLock.tryAcquire(REINDEX_LOCK)) {
+            log.info("генерация индексов по товарам выполняется на ведущем узле");
+            return;
+        }
+        try {
+            run();
+            log.info("генерация индексов по товарам закончилась");
+            publish();
+        } catch (ReindexThrottle.PausedTooLongException e) {
+            log.warn("генерация индексов по товарам прервана: {}, повтор через {} мс", e.getMessage(), retryDelayMs);
+            taskScheduler.schedule(this::reindex, Instant.now().plusMillis(retryDelayMs));
+        }
+    }
+
+    private void run() {
         log.info("генерация индексов по товарам запущена");
-        dbRepository.findAllInStream().parallel()
-                .map(entity -> new ItemElastic(entity))
-                .forEach(
-                item ->
-                searchRepository.save(item)
-        );
-        log.info("генерация индексов по товарам закончилась");
+        long total = dbRepository.countAll();
+        throttle.start(total);
+        List<ItemElastic> batch = new ArrayList<>(batchSize);
+        try {
+            transformStage.transform(pages(transformStage.getChunkSize()), items -> {
+                for (ItemElastic item : items) {
+                    batch.add(item);
+                    if (batch.size() == batchSize) {
+                        save(batch);
+                        batch.clear();
+                    }
+                }
+            });
+            if (!batch.isEmpty()) {
+                save(batch);
+            }
+        } finally {
+            throttle.finish();
+        }
+    }
+
+    private Iterator<List<ItemEntity>> pages(int pageSize) {
+        return new Iterator<>() {
+            private long lastItemId = Long.MIN_VALUE;
+            private boolean exhausted;
+            private List<ItemEntity> page;
+
+            @Override
+            public boolean hasNext() {
+                if (page == null && !exhausted) {
+                    page = dbRepository.findPageAfter(lastItemId, pageSize);
+                    exhausted = page.size() < pageSize;
+                    if (!page.isEmpty()) {
+                        lastItemId = page.get(page.size() - 1).getItemId();
+                    }
+                }
+                return page != null && !page.isEmpty();
+            }
+
+            @Override
+            public List<ItemEntity> next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                List<ItemEntity> current = page;
+                page = null;
+                return current;
+            }
+        };
+    }
+
+    private void publish() {
+        try {
+            long generation = invalidationBus.publish(InvalidationBus.Topic.ITEMS);
+            log.info("опубликовано поколение товаров {}", generation);
+        } catch (DataAccessException e) {
+            log.warn("не удалось опубликовать поколение товаров, примените db/invalidation.sql", e);
+        }
+    }
 
+    private void save(List<ItemElastic> batch) {
+        while (true) {
+            throttle.acquire(batch.size());
+            try {
+                searchRepository.saveAll(batch);
+                throttle.onIndexed(batch.size());
+                return;
+            } catch (RuntimeException e) {
+                if (!ReindexThrottle.isRejected(e)) {
+                    throw e;
+                }
+                log.warn("elasticsearch отклонил пачку из {} товаров, повтор", batch.size());
+                throttle.onRejected();
+            }
+        }
     }
 }
@@ -0,0 +1,240 @@
+package ru.shop.backend.search.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.elasticsearch.ElasticsearchStatusException;
+import org.elasticsearch.client.Request;
+import org.elasticsearch.client.Response;
+import org.elasticsearch.client.RestHighLevelClient;
+import org.elasticsearch.rest.RestStatus;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalTime;
+
+@Component
+@Slf4j
+public class ReindexThrottle {
+    private static final long ADJUST_INTERVAL_MS = 1000;
+
+    private final SearchLatencyMonitor latencyMonitor;
+    private final RestHighLevelClient client;
+    private final ObjectMapper objectMapper;
+
+    @Value("${reindex.throttle.min-rate:200}")
+    private double minRate;
+    @Value("${reindex.throttle.max-rate:2000}")
+    private double maxRate;
+    @Value("${reindex.throttle.night-max-rate:10000}")
+    private double nightMaxRate;
+    @Value("${reindex.throttle.night-start-hour:1}")
+    private int nightStartHour;
+    @Value("${reindex.throttle.night-end-hour:6}")
+    private int nightEndHour;
+    @Value("${reindex.throttle.increase-step:100}")
+    private double increaseStep;
+    @Value("${reindex.throttle.search-slo-ms:300}")
+    private long searchSloMs;
+    @Value("${reindex.throttle.search-queue-limit:50}")
+    private long searchQueueLimit;
+    @Value("${reindex.throttle.max-pause-ms:900000}")
+    private long maxPauseMs;
+
+    private double rate;
+    private double tokens;
+    private long lastRefill;
+    private long lastAdjust;
+    private long pausedSince;
+    private long lastWriteRejected = -1;
+    private int rejectedSinceAdjust;
+    private long indexedSinceAdjust;
+    private volatile boolean paused;
+    private volatile boolean running;
+    private volatile double currentRate;
+    private volatile long total;
+    private volatile long indexed;
+
+    public ReindexThrottle(SearchLatencyMonitor latencyMonitor, RestHighLevelClient client,
+                           ObjectMapper objectMapper, MeterRegistry registry) {
+        this.latencyMonitor = latencyMonitor;
+        this.client = client;
+        this.objectMapper = objectMapper;
+        Gauge.builder("reindex.items.total", this, t -> t.total).register(registry);
+        Gauge.builder("reindex.items.indexed", this, t -> t.indexed).register(registry);
+        Gauge.builder("reindex.rate.limit", this, t -> t.running ? t.rate : 0).baseUnit("items/s").register(registry);
+        Gauge.builder("reindex.rate.current", this, t -> t.currentRate).baseUnit("items/s").register(registry);
+        Gauge.builder("reindex.paused", this, t -> t.paused ? 1 : 0).register(registry);
+    }
+
+    public synchronized void start(long total) {
+        long now = System.currentTimeMillis();
+        this.total = total;
+        this.indexed = 0;
+        this.rate = minRate;
+        this.tokens = 0;
+        this.lastRefill = now;
+        this.lastAdjust = now;
+        this.lastWriteRejected = -1;
+        this.rejectedSinceAdjust = 0;
+        this.indexedSinceAdjust = 0;
+        this.paused = false;
+        this.running = true;
+    }
+
+    public synchronized void finish() {
+        running = false;
+        paused = false;
+        currentRate = 0;
+    }
+
+    public void acquire(int permits) {
+        while (true) {
+            boolean adjustDue = adjustDue();
+            PoolStats stats = adjustDue ? probeElasticPressure() : null;
+            if (tryAcquire(permits, adjustDue, stats)) {
+                return;
+            }
+        }
+    }
+
+    private synchronized boolean adjustDue() {
+        return System.currentTimeMillis() - lastAdjust >= ADJUST_INTERVAL_MS;
+    }
+
+    private synchronized boolean tryAcquire(int permits, boolean adjustDue, PoolStats stats) {
+        long now = System.currentTimeMillis();
+        if (adjustDue) {
+            adjust(now, stats);
+        }
+        tokens = Math.min(Math.max(rate, permits), tokens + (now - lastRefill) * rate / 1000);
+        lastRefill = now;
+        if (!paused && tokens >= permits) {
+            tokens -= permits;
+            return true;
+        }
+        if (paused && now - pausedSince >= maxPauseMs) {
+            throw new PausedTooLongException(now - pausedSince);
+        }
+        long waitMs = paused ? ADJUST_INTERVAL_MS : (long) Math.ceil((permits - tokens) * 1000 / rate);
+        try {
+            wait(Math.max(1, Math.min(waitMs, ADJUST_INTERVAL_MS)));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Переиндексация прервана", e);
+        }
+        return false;
+    }
+
+    public synchronized void onIndexed(int count) {
+        indexed += count;
+        indexedSinceAdjust += count;
+    }
+
+    public synchronized void onRejected() {
+        rejectedSinceAdjust++;
+    }
+
+    private void adjust(long now, PoolStats stats) {
+        currentRate = indexedSinceAdjust * 1000.0 / (now - lastAdjust);
+        indexedSinceAdjust = 0;
+        lastAdjust = now;
+
+        long p99 = latencyMonitor.drainP99();
+        boolean elasticPressure = stats != null && elasticPressure(stats);
+        boolean pressure = rejectedSinceAdjust > 0 || elasticPressure;
+        rejectedSinceAdjust = 0;
+
+        if (p99 > searchSloMs) {
+            if (!paused) {
+                log.warn("переиндексация приостановлена: p99 поиска {} мс превышает {} мс", p99, searchSloMs);
+                pausedSince = now;
+            }
+            paused = true;
+            rate = minRate;
+        } else if (pressure) {
+            paused = false;
+            rate = Math.max(minRate, rate / 2);
+        } else {
+            if (paused) {
+                log.info("переиндексация возобновлена: p99 поиска {} мс", p99);
+            }
+            paused = false;
+            rate = Math.min(ceiling(), rate + increaseStep);
+        }
+        if (rate > ceiling()) {
+            rate = ceiling();
+        }
+    }
+
+    private double ceiling() {
+        int hour = LocalTime.now().getHour();
+        boolean night = nightStartHour <= nightEndHour
+                ? hour >= nightStartHour && hour < nightEndHour
+                : hour >= nightStartHour || hour < nightEndHour;
+        return night ? nightMaxRate : maxRate;
+    }
+
+    private PoolStats probeElasticPressure() {
+        Request request = new Request("GET", "/_cat/thread_pool/search,write");
+        request.addParameter("format", "json");
+        request.addParameter("h", "name,queue,rejected");
+        long searchQueue = 0;
+        long writeRejected = 0;
+        try {
+            Response response = client.getLowLevelClient().performRequest(request);
+            try (InputStream content = response.getEntity().getContent()) {
+                for (JsonNode pool : objectMapper.readTree(content)) {
+                    if ("search".equals(pool.path("name").asText())) {
+                        searchQueue += pool.path("queue").asLong();
+                    } else {
+                        writeRejected += pool.path("rejected").asLong();
+                    }
+                }
+            }
+        } catch (IOException e) {
+            log.debug("не удалось получить статистику пулов elasticsearch", e);
+            return null;
+        }
+        return new PoolStats(searchQueue, writeRejected);
+    }
+
+    private boolean elasticPressure(PoolStats stats) {
+        boolean newRejections = lastWriteRejected >= 0 && stats.writeRejected > lastWriteRejected;
+        lastWriteRejected = stats.writeRejected;
+        return newRejections || stats.searchQueue > searchQueueLimit;
+    }
+
+    public static boolean isRejected(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ElasticsearchStatusException
+                    && ((ElasticsearchStatusException) cause).status() == RestStatus.TOO_MANY_REQUESTS) {
+                return true;
+            }
+            if (cause.getMessage() != null && cause.getMessage().contains("es_rejected_execution_exception")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static class PoolStats {
+        private final long searchQueue;
+        private final long writeRejected;
+
+        private PoolStats(long searchQueue, long writeRejected) {
+            this.searchQueue = searchQueue;
+            this.writeRejected = writeRejected;
+        }
+    }
+
+    public static class PausedTooLongException extends IllegalStateException {
+        public PausedTooLongException(long pausedMs) {
+            super("Переиндексация приостановлена дольше " + pausedMs + " мс");
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package ru.shop.backend.search.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+
+@Component
+public class SearchLatencyMonitor {
+    private static final int CAPACITY = 2048;
+
+    private final long[] samples = new long[CAPACITY];
+    private int count;
+    private int position;
+    private volatile long lastP99Ms;
+
+    public SearchLatencyMonitor(MeterRegistry registry) {
+        Gauge.builder("search.latency.p99", this, m -> m.lastP99Ms)
+                .baseUnit("milliseconds")
+                .register(registry);
+    }
+
+    public synchronized void record(long millis) {
+        samples[position] = millis;
+        position = (position + 1) % CAPACITY;
+        if (count < CAPACITY) {
+            count++;
+        }
+    }
+
+    public long drainP99() {
+        long[] snapshot;
+        synchronized (this) {
+            snapshot = Arrays.copyOf(samples, count);
+            count = 0;
+            position = 0;
+        }
+        if (snapshot.length == 0) {
+            lastP99Ms = 0;
+            return 0;
+        }
+        Arrays.sort(snapshot);
+        lastP99Ms = snapshot[(int) Math.ceil(snapshot.length * 0.99) - 1];
+        return lastP99Ms;
+    }
+}
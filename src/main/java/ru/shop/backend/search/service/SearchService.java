@@ -3,13 +3,15 @@ package ru.shop.backend.search.service;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.elasticsearch.core.SearchHit;
+import org.springframework.data.elasticsearch.core.SearchHits;
 import org.springframework.stereotype.Service;
 import ru.shop.backend.search.model.*;
 import ru.shop.backend.search.repository.ItemDbRepository;
+import ru.shop.backend.search.repository.ItemQuery;
 import ru.shop.backend.search.repository.ItemRepository;
 
 import javax.xml.catalog.Catalog;
-import java.math.BigInteger;
 import java.util.*;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.regex.Pattern;
@@ -54,9 +56,7 @@ public class SearchService {
                     result.stream()
                             .flatMap(category -> category.getItems().stream())
                             .map(item -> item.getItemId()) .collect(Collectors.toList())
-                            ).stream()
-                .map(arr -> new Item(((BigInteger) arr[2]).intValue(),arr[1].toString(),arr[3].toString(),arr[4].toString(),((BigInteger) arr[0]).intValue() , arr[5].toString()))
-                            .collect(Collectors.toList());
+                            );
         Set<String> catUrls = new HashSet();
         String brand = null;
         if(!result.isEmpty())
@@ -67,16 +67,15 @@ public class SearchService {
         brand = brand.toLowerCase(Locale.ROOT);
         String finalBrand = brand;
         List<Category> categories = repoDb.findCatsByIds(items.stream().map(i-> i.getItemId()).collect(Collectors.toList())).stream()
-                .map(arr ->
+                .map(row ->
                 {
-                    if(catUrls.contains(arr[2].toString()))
+                    if(!catUrls.add(row.getUrl()))
                         return null;
-                    catUrls.add(arr[2].toString());
                     return
-                            new Category(arr[0].toString()
-                                    , arr[1].toString()
-                                    , "/cat/" + arr[2].toString() + (finalBrand.isEmpty()?"":"/brands/"+ finalBrand)
-                                    , "/cat/" + arr[3].toString(), arr[4] == null ? null : arr[4].toString());
+                            new Category(row.getName()
+                                    , row.getParentName()
+                                    , "/cat/" + row.getUrl() + (finalBrand.isEmpty()?"":"/brands/"+ finalBrand)
+                                    , "/cat/" + row.getParentUrl(), row.getImage());
                 })
                 .filter(x -> x != null)
                 .collect(Collectors.toList());
@@ -93,6 +92,10 @@ public class SearchService {
     }
 
     public List<CatalogueElastic> getAll(String text, Pageable pageable){
+        return getPage(text, pageable).getResult();
+    }
+
+    public CataloguePage getPage(String text, Pageable pageable){
         String type = "";
         List<ItemElastic> list = new ArrayList<>();
         String brand = "", text2 =text;
@@ -150,62 +153,79 @@ public class SearchService {
         }
         text = text.trim();
         if(text.isEmpty() && !brand.isEmpty())
-            return Collections.singletonList(new CatalogueElastic(list.get(0).getCatalogue(), list.get(0).getCatalogueId(), null, brand));
+            return new CataloguePage(Collections.singletonList(new CatalogueElastic(list.get(0).getCatalogue(), list.get(0).getCatalogueId(), null, brand)), null);
         text += "?";
+        List<SearchCursor> candidates = new ArrayList<>();
         if(brand.isEmpty()) {
                 type += "?";
                 if(catalogueId == null)
                     if(type.isEmpty()) {
-                        list = repo.find(text, pageable);
-                        if (list.isEmpty()) {
-                            list = repo.find(convert(text), pageable);
-                        }
+                        candidates.add(cursor(ItemQuery.FIND, text, brand, text));
+                        candidates.add(cursor(ItemQuery.FIND, text, brand, convert(text)));
                     }
                     else {
-                        list = repo.findAllByType(text, type, pageable);
-                        if (list.isEmpty()) {
-                            list = repo.findAllByType(convert(text), type, pageable);
-                        }
+                        candidates.add(cursor(ItemQuery.FIND_BY_TYPE, text, brand, text, type));
+                        candidates.add(cursor(ItemQuery.FIND_BY_TYPE, text, brand, convert(text), type));
                     }
                 else
                     if(type.isEmpty()) {
-                        list = repo.find(text, catalogueId, type, pageable);
-                        if (list.isEmpty()) {
-                            list = repo.find(convert(text), catalogueId, type, pageable);
-                        }
+                        candidates.add(cursor(ItemQuery.FIND_BY_CATALOGUE_AND_TYPE, text, brand, text, catalogueId.toString(), type));
+                        candidates.add(cursor(ItemQuery.FIND_BY_CATALOGUE_AND_TYPE, text, brand, convert(text), catalogueId.toString(), type));
                     }
                     else {
-                        list = repo.find(text, catalogueId, pageable);
-                        if (list.isEmpty()) {
-                            list = repo.find(convert(text), catalogueId, pageable);
-                        }
+                        candidates.add(cursor(ItemQuery.FIND_BY_CATALOGUE, text, brand, text, catalogueId.toString()));
+                        candidates.add(cursor(ItemQuery.FIND_BY_CATALOGUE, text, brand, convert(text), catalogueId.toString()));
                     }
 
         }else {
             if(type.isEmpty()) {
-                list = repo.findAllByBrand(text, brand, pageable);
-                if (list.isEmpty()) {
-                    list = repo.findAllByBrand(convert(text), brand, pageable);
-                }
+                candidates.add(cursor(ItemQuery.FIND_BY_BRAND, text, brand, text, brand));
+                candidates.add(cursor(ItemQuery.FIND_BY_BRAND, text, brand, convert(text), brand));
             }else {
                 type += "?";
-                list = repo.findAllByTypeAndBrand(text, brand, type, pageable);
-                if (list.isEmpty()) {
-                    list = repo.findAllByTypeAndBrand(convert(text), brand, type, pageable);
-                }
+                candidates.add(cursor(ItemQuery.FIND_BY_TYPE_AND_BRAND, text, brand, text, brand));
+                candidates.add(cursor(ItemQuery.FIND_BY_TYPE_AND_BRAND, text, brand, convert(text), brand));
             }
         }
 
-        if(list.isEmpty()){
-            if(text2.contains(" "))
-                text = Arrays.stream(text.split("\\s")).collect(Collectors.joining(" "));
-            text2 += "?";
-            list  =repo.findAllNotStrong(text2, pageable);
-            if (list.isEmpty()&&needConvert) {
-                list = repo.findAllByTypeAndBrand(convert(text2), brand, type, pageable);
+        if(text2.contains(" "))
+            text = Arrays.stream(text.split("\\s")).collect(Collectors.joining(" "));
+        text2 += "?";
+        candidates.add(cursor(ItemQuery.FIND_NOT_STRONG, text, brand, text2));
+        if (needConvert) {
+            candidates.add(cursor(ItemQuery.FIND_BY_TYPE_AND_BRAND, text, brand, convert(text2), brand));
+        }
+        return fetch(candidates, pageable.getPageSize());
+    }
+
+    public SearchCursor decodeCursor(String token){
+        return SearchCursor.decode(token, query -> ItemQuery.valueOf(query).getArity());
+    }
+
+    private static SearchCursor cursor(ItemQuery query, String name, String brand, String... args){
+        if (args.length != query.getArity()) {
+            throw new IllegalStateException("Запрос " + query + " ожидает " + query.getArity() + " аргументов, передано " + args.length);
+        }
+        return new SearchCursor(query.name(), name, brand, args);
+    }
+
+    public CataloguePage getPage(SearchCursor cursor, int size){
+        return fetch(Collections.singletonList(cursor), size);
+    }
+
+    private CataloguePage fetch(List<SearchCursor> candidates, int size){
+        for (SearchCursor cursor : candidates) {
+            SearchHits<ItemElastic> hits = repo.search(cursor, size);
+            if (hits.hasSearchHits()) {
+                List<ItemElastic> list = hits.getSearchHits().stream()
+                        .map(SearchHit::getContent)
+                        .collect(Collectors.toList());
+                SearchCursor next = list.size() < size ? null
+                        : cursor.next(hits.getSearchHit(list.size() - 1).getSortValues());
+                return new CataloguePage(get(list, cursor.getName(), cursor.getBrand()), next);
             }
         }
-        return get(list, text, brand);
+        return new CataloguePage(new ArrayList<>(), null);
     }
 
     private List<CatalogueElastic> get(List<ItemElastic> list, String name, String brand){
@@ -282,4 +302,8 @@ public class SearchService {
     public List<CatalogueElastic> getAllFull(String text) {
         return getAll(text, pageable);
     }
+
+    public CataloguePage getAllFull(String text, int size) {
+        return getPage(text, PageRequest.of(0, size));
+    }
 }
@@ -0,0 +1,142 @@
+package ru.shop.backend.search.service;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.elasticsearch.client.RequestOptions;
+import org.elasticsearch.client.RestHighLevelClient;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class WarmUpService implements ApplicationRunner {
+    private final SearchService searchService;
+    private final DataSource dataSource;
+    private final RestHighLevelClient client;
+    private final ItemStore itemStore;
+    private final ItemStoreLoader itemStoreLoader;
+    private final InvalidationBus invalidationBus;
+
+    @Value("${warmup.enabled:true}")
+    private boolean enabled;
+    @Value("${warmup.queries:}")
+    private List<String> queries;
+    @Value("${warmup.region-id:1}")
+    private int regionId;
+    @Value("${warmup.rounds:3}")
+    private int rounds;
+    @Value("${warmup.budget-ms:60000}")
+    private long budgetMs;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!enabled) {
+            return;
+        }
+        log.info("прогрев запущен");
+        long start = System.currentTimeMillis();
+        ExecutorService executor = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "warmup");
+            thread.setDaemon(true);
+            return thread;
+        });
+        Future<?> warmUp = executor.submit(this::warmUp);
+        try {
+            warmUp.get(budgetMs, TimeUnit.MILLISECONDS);
+            log.info("прогрев закончился за {} мс", System.currentTimeMillis() - start);
+        } catch (TimeoutException e) {
+            log.warn("прогрев не уложился в {} мс и прерван", budgetMs);
+        } catch (ExecutionException e) {
+            log.warn("прогрев завершился с ошибкой", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private void warmUp() {
+        openConnections();
+        pingElastic();
+        for (int round = 0; round < rounds && !Thread.currentThread().isInterrupted(); round++) {
+            for (String query : queries) {
+                if (Thread.currentThread().isInterrupted()) {
+                    return;
+                }
+                replay(query.trim());
+            }
+        }
+        if (!Thread.currentThread().isInterrupted()) {
+            preloadItemStore();
+        }
+    }
+
+    private void replay(String query) {
+        if (query.isEmpty()) {
+            return;
+        }
+        try {
+            searchService.getSearchResult(regionId, query);
+            searchService.getAllFull(query);
+        } catch (RuntimeException e) {
+            log.debug("прогрев запроса '{}' завершился с ошибкой", query, e);
+        }
+    }
+
+    private void preloadItemStore() {
+        if (!itemStoreLoader.isEnabled() || itemStore.getColumns().size() > 0) {
+            return;
+        }
+        try {
+            itemStoreLoader.load(invalidationBus.generation(InvalidationBus.Topic.ITEMS));
+        } catch (RuntimeException e) {
+            log.warn("не удалось загрузить хранилище товаров при прогреве", e);
+        }
+    }
+
+    private void openConnections() {
+        int size = dataSource instanceof HikariDataSource
+                ? ((HikariDataSource) dataSource).getMaximumPoolSize()
+                : 1;
+        List<Connection> connections = new ArrayList<>(size);
+        try {
+            for (int i = 0; i < size; i++) {
+                connections.add(dataSource.getConnection());
+            }
+        } catch (SQLException e) {
+            log.warn("не удалось открыть соединения с базой при прогреве", e);
+        } finally {
+            for (Connection connection : connections) {
+                try {
+                    connection.close();
+                } catch (SQLException e) {
+                    log.debug("ошибка при возврате соединения в пул", e);
+                }
+            }
+        }
+    }
+
+    private void pingElastic() {
+        try {
+            client.ping(RequestOptions.DEFAULT);
+        } catch (Exception e) {
+            log.warn("elasticsearch недоступен при прогреве", e);
+        }
+    }
+}
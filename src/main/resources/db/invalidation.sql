@@ -0,0 +1,28 @@
+-- Публикация поколений в канал search_invalidation при изменении данных.
+-- Применяется к базе сайта вручную, сервис слушает канал сам.
+-- Поколения всех тем берутся из одной последовательности, её же читает сервис при переподключении.
+
+create sequence if not exists search_invalidation_generation;
+
+create or replace function search_invalidation_notify() returns trigger as $$
+begin
+    perform pg_notify('search_invalidation',
+                      tg_argv[0] || ':' || nextval('search_invalidation_generation'));
+    return null;
+end;
+$$ language plpgsql;
+
+drop trigger if exists search_invalidation_prices on remain;
+create trigger search_invalidation_prices
+    after insert or update or delete on remain
+    for each statement execute procedure search_invalidation_notify('PRICES');
+
+drop trigger if exists search_invalidation_categories on catalogue;
+create trigger search_invalidation_categories
+    after insert or update or delete on catalogue
+    for each statement execute procedure search_invalidation_notify('CATEGORIES');
+
+drop trigger if exists search_invalidation_items on item;
+create trigger search_invalidation_items
+    after insert or update or delete on item
+    for each statement execute procedure search_invalidation_notify('ITEMS');
@@ -0,0 +1,76 @@
+package ru.shop.backend.search.model;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class DescriptionScannerTest {
+    private static final String[] PIECES = {
+            ";", ";", ":", ": ", ": нет", ": НЕТ", ": -", ": есть", ": ЕСТЬ", ": 0 ", ": 0", "0 ", " ", "-",
+            "Цвет", "черный", "NFC", "İ", "Σ", "ς", "ΣΑΣ", "😀", "𐐀", "\uD83D", "\uDE00",
+            "ß", "Ǆ", "K", "é", "a", "Z", "есть", "нет", "Е", "Н"
+    };
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "",
+            ";",
+            ";;;",
+            "Цвет: черный;",
+            ";Цвет: черный",
+            "Цвет: черный;;NFC: есть;",
+            "NFC: есть;Стилус: нет;Подсветка клавиатуры: -",
+            "NFC: есть: да;Размер: 10: 20",
+            "Wi-Fi: есть, Bluetooth: есть: 5.0",
+            "NFC:есть;NFC : есть;NFC: есть",
+            "Порты: 0 шт;Порты: 0;Порты: 10 шт",
+            "Гарантия: нет: есть;Гарантия: -: есть;Гарантия: есть: 0 ",
+            "İSTANBUL: есть;Yİ: Σ",
+            "ΟΔΟΣ: ΣΑΣ;ΣΣ: ΣΑ Σ",
+            "Эмодзи: 😀;Deseret: 𐐀 есть",
+            "Обрыв: \uD83D;Хвост: \uDE00: есть",
+            "STRASSE: ß;ǄAB: K"
+    })
+    void matchesStreamImplementation(String description) {
+        assertEquals(legacy(description), DescriptionScanner.build(description));
+    }
+
+    @Test
+    void matchesStreamImplementationOnRandomInput() {
+        Random random = new Random(20231);
+        StringBuilder description = new StringBuilder();
+        for (int i = 0; i < 200_000; i++) {
+            description.setLength(0);
+            int pieces = random.nextInt(24);
+            for (int j = 0; j < pieces; j++) {
+                description.append(PIECES[random.nextInt(PIECES.length)]);
+            }
+            String input = description.toString();
+            assertEquals(legacy(input), DescriptionScanner.build(input), input);
+        }
+    }
+
+    private static String legacy(String description) {
+        return Arrays.stream(description.split(";")).map(
+                d -> {
+                    d = d.toLowerCase(Locale.ROOT);
+                    if (d.contains(": нет"))
+                        return null;
+                    if (d.contains(": -"))
+                        return null;
+                    if (d.contains(": есть"))
+                        return d.replace(": есть", "");
+                    if (d.contains(": 0 "))
+                        return null;
+                    return d.replace(":", "");
+                }
+        ).filter(d -> d != null).collect(Collectors.joining());
+    }
+}
@@ -0,0 +1,50 @@
+package ru.shop.backend.search.model;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ItemColumnsTest {
+    @Test
+    void findsRowsByItemIdRegardlessOfInsertOrder() {
+        long[] ids = {Integer.MAX_VALUE, 7, 0, 1001, 65_536};
+        ItemColumns.Builder builder = new ItemColumns.Builder(2);
+        for (long id : ids) {
+            builder.add(item(id, id / 2));
+        }
+        ItemColumns columns = builder.build(3);
+
+        assertEquals(ids.length, columns.size());
+        for (long id : ids) {
+            ItemElastic view = columns.view(columns.indexOf(id));
+            assertEquals(id, view.getItemId());
+            assertEquals(id / 2, view.getCatalogueId());
+            assertEquals("товар " + id, view.getName());
+            assertEquals("бренд", view.getBrand());
+        }
+        assertEquals(-1, columns.indexOf(8));
+        assertEquals(-1, columns.indexOf(-1));
+        assertEquals(-1, columns.indexOf(Integer.MAX_VALUE + 1L));
+    }
+
+    @Test
+    void rejectsIdsOutsideIntRange() {
+        ItemColumns.Builder builder = new ItemColumns.Builder(1);
+
+        assertThrows(IllegalArgumentException.class, () -> builder.add(item(Integer.MAX_VALUE + 1L, 1)));
+        assertThrows(IllegalArgumentException.class, () -> builder.add(item(-1, 1)));
+        assertThrows(IllegalArgumentException.class, () -> builder.add(item(1, Integer.MAX_VALUE + 1L)));
+    }
+
+    private static ItemElastic item(long itemId, long catalogueId) {
+        return ItemElastic.builder()
+                .itemId(itemId)
+                .catalogueId(catalogueId)
+                .name("товар " + itemId)
+                .brand("бренд")
+                .type("тип")
+                .catalogue("каталог")
+                .build();
+    }
+}
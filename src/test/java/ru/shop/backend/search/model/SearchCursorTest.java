@@ -0,0 +1,64 @@
+package ru.shop.backend.search.model;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import ru.shop.backend.search.repository.ItemQuery;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.ToIntFunction;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class SearchCursorTest {
+    private static final ToIntFunction<String> ARITY = query -> ItemQuery.valueOf(query).getArity();
+
+    @ParameterizedTest
+    @EnumSource(ItemQuery.class)
+    void roundTripsEveryQuery(ItemQuery query) {
+        List<String> args = new ArrayList<>();
+        for (int i = 0; i < query.getArity(); i++) {
+            args.add("арг \"" + i + "\"?");
+        }
+        SearchCursor cursor = new SearchCursor(query.name(), "айфон?", "apple", args.toArray(new String[0]))
+                .next(Arrays.asList(1.5, 1001));
+
+        SearchCursor decoded = SearchCursor.decode(cursor.encode(), ARITY);
+
+        assertEquals(cursor, decoded);
+        assertFalse(ItemQuery.valueOf(decoded.getQuery()).bind(decoded.getArgs()).matches("(?s).*\\?\\d.*"));
+    }
+
+    @ParameterizedTest
+    @EnumSource(ItemQuery.class)
+    void rejectsWrongArgCount(ItemQuery query) {
+        String[] args = new String[query.getArity() + 1];
+        Arrays.fill(args, "x");
+        String token = new SearchCursor(query.name(), "x", "", args).encode();
+
+        assertThrows(IllegalArgumentException.class, () -> SearchCursor.decode(token, ARITY));
+    }
+
+    @Test
+    void rejectsMissingNameOrBrand() {
+        assertThrows(IllegalArgumentException.class, () -> SearchCursor.decode(token("{\"query\":\"FIND\",\"args\":[\"x\"]}"), ARITY));
+        assertThrows(IllegalArgumentException.class, () -> SearchCursor.decode(token("{\"query\":\"FIND\",\"args\":[\"x\"],\"name\":\"x\"}"), ARITY));
+        assertThrows(IllegalArgumentException.class, () -> SearchCursor.decode(token("{\"query\":\"FIND\",\"args\":[\"x\"],\"brand\":\"\"}"), ARITY));
+    }
+
+    @Test
+    void rejectsMalformedToken() {
+        assertThrows(IllegalArgumentException.class, () -> SearchCursor.decode("не base64", ARITY));
+        assertThrows(IllegalArgumentException.class, () -> SearchCursor.decode(token("[1, 2]"), ARITY));
+    }
+
+    private static String token(String json) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(json.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,100 @@
+package ru.shop.backend.search.service;
+
+import org.junit.jupiter.api.Test;
+import ru.shop.backend.search.model.QueryLogRecord;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class QueryLogReaderTest {
+    private static final int HEADER_BYTES = 13;
+    private static final List<QueryLogRecord> RECORDS = List.of(
+            new QueryLogRecord(1_000, QueryLogRecord.Endpoint.FIND, 1, "айфон 13"),
+            new QueryLogRecord(1_250, QueryLogRecord.Endpoint.FIND_BY, -7, ""),
+            new QueryLogRecord(1_250, QueryLogRecord.Endpoint.FIND, Integer.MAX_VALUE, "galaxy s22 😀"));
+
+    @Test
+    void roundTrips() throws IOException {
+        try (QueryLogReader reader = reader(write(RECORDS))) {
+            assertEquals(RECORDS, readAll(reader));
+            assertFalse(reader.isTruncated());
+        }
+    }
+
+    @Test
+    void treatsPartialRecordAsEndOfLog() throws IOException {
+        byte[] log = write(RECORDS);
+        byte[] twoRecords = write(RECORDS.subList(0, 2));
+        for (int length = twoRecords.length + 1; length < log.length; length++) {
+            try (QueryLogReader reader = reader(Arrays.copyOf(log, length))) {
+                assertEquals(RECORDS.subList(0, 2), readAll(reader));
+                assertTrue(reader.isTruncated());
+                assertEquals(2, reader.getRecords());
+            }
+        }
+    }
+
+    @Test
+    void rejectsUnknownEndpoint() throws IOException {
+        byte[] log = write(RECORDS.subList(0, 1));
+        log[HEADER_BYTES + 1] = (byte) QueryLogRecord.Endpoint.values().length;
+        try (QueryLogReader reader = reader(log)) {
+            assertThrows(IOException.class, reader::read);
+        }
+    }
+
+    @Test
+    void rejectsOversizedText() throws IOException {
+        byte[] log = Arrays.copyOf(write(List.of()), HEADER_BYTES + 6);
+        int length = QueryLogWriter.MAX_TEXT_BYTES + 1;
+        log[HEADER_BYTES + 2] = 1;
+        log[HEADER_BYTES + 3] = (byte) (length & 0x7F | 0x80);
+        log[HEADER_BYTES + 4] = (byte) (length >>> 7 & 0x7F | 0x80);
+        log[HEADER_BYTES + 5] = (byte) (length >>> 14);
+        try (QueryLogReader reader = reader(log)) {
+            assertThrows(IOException.class, reader::read);
+        }
+    }
+
+    @Test
+    void skipsTextOverLimit() throws IOException {
+        String text = "я".repeat(QueryLogWriter.MAX_TEXT_BYTES);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (QueryLogWriter writer = new QueryLogWriter(out, 0)) {
+            assertFalse(writer.write(new QueryLogRecord(1, QueryLogRecord.Endpoint.FIND, 1, text)));
+        }
+        assertEquals(HEADER_BYTES, out.size());
+    }
+
+    private static byte[] write(List<QueryLogRecord> records) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (QueryLogWriter writer = new QueryLogWriter(out, 1_000)) {
+            for (QueryLogRecord record : records) {
+                assertTrue(writer.write(record));
+            }
+        }
+        return out.toByteArray();
+    }
+
+    private static QueryLogReader reader(byte[] log) throws IOException {
+        return new QueryLogReader(new ByteArrayInputStream(log));
+    }
+
+    private static List<QueryLogRecord> readAll(QueryLogReader reader) throws IOException {
+        List<QueryLogRecord> records = new ArrayList<>();
+        QueryLogRecord record;
+        while ((record = reader.read()) != null) {
+            records.add(record);
+        }
+        return records;
+    }
+}
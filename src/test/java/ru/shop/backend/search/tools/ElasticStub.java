@@ -0,0 +1,139 @@
+package ru.shop.backend.search.tools;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.concurrent.Executors;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+public class ElasticStub {
+    private static final String INFO = "{\"name\":\"stub\",\"cluster_name\":\"stub\",\"cluster_uuid\":\"stub\"," +
+            "\"version\":{\"number\":\"7.17.4\",\"build_flavor\":\"default\",\"build_type\":\"docker\"," +
+            "\"build_hash\":\"stub\",\"build_date\":\"2022-05-18T00:00:00.000Z\",\"build_snapshot\":false," +
+            "\"lucene_version\":\"8.11.1\",\"minimum_wire_compatibility_version\":\"6.8.0\"," +
+            "\"minimum_index_compatibility_version\":\"6.0.0-beta1\"},\"tagline\":\"You Know, for Search\"}";
+    private static final String SEARCH = "{\"took\":1,\"timed_out\":false," +
+            "\"_shards\":{\"total\":1,\"successful\":1,\"skipped\":0,\"failed\":0}," +
+            "\"hits\":{\"total\":{\"value\":3,\"relation\":\"eq\"},\"max_score\":2.0,\"hits\":[" +
+            hit(1001, 2.0, "iPhone 13 128 ГБ", "Apple", 10, "Смартфоны", "Смартфон", "цвет черныйnfc") + "," +
+            hit(1002, 1.5, "Galaxy S22 256 ГБ", "Samsung", 10, "Смартфоны", "Смартфон", "цвет белыйnfc") + "," +
+            hit(1003, 1.0, "IdeaPad 3 15", "Lenovo", 11, "Ноутбуки", "Ноутбук", "диагональ 15.6") + "]}}";
+    private static final String THREAD_POOL = "[{\"name\":\"search\",\"queue\":\"0\",\"rejected\":\"0\"}," +
+            "{\"name\":\"write\",\"queue\":\"0\",\"rejected\":\"0\"}]";
+    private static final String ACKNOWLEDGED = "{\"acknowledged\":true}";
+    private static final String SHARDS = "{\"_shards\":{\"total\":1,\"successful\":1,\"failed\":0}}";
+    private static final Pattern BULK_ACTION = Pattern.compile("^\\{\"(index|create|update|delete)\"");
+    private static final Pattern BULK_ID = Pattern.compile("\"_id\":\"([^\"]*)\"");
+
+    private final byte[] searchResponse;
+    private final long delayMs;
+
+    public ElasticStub(byte[] searchResponse, long delayMs) {
+        this.searchResponse = searchResponse;
+        this.delayMs = delayMs;
+    }
+
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : 9200;
+        byte[] searchResponse = args.length > 1 && !args[1].isEmpty()
+                ? Files.readAllBytes(Paths.get(args[1]))
+                : SEARCH.getBytes(StandardCharsets.UTF_8);
+        long delayMs = args.length > 2 ? Long.parseLong(args[2]) : 0;
+        HttpServer server = HttpServer.create(new InetSocketAddress(port), 0);
+        server.createContext("/", new ElasticStub(searchResponse, delayMs)::handle);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.start();
+        System.out.printf("заглушка elasticsearch слушает порт %d, задержка поиска %d мс%n", port, delayMs);
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        String body;
+        try (InputStream in = exchange.getRequestBody()) {
+            body = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        String method = exchange.getRequestMethod();
+        String path = exchange.getRequestURI().getPath();
+        if (path.endsWith("/_search")) {
+            sleep();
+            respond(exchange, 200, searchResponse);
+        } else if (path.startsWith("/_cat/thread_pool")) {
+            respond(exchange, 200, THREAD_POOL.getBytes(StandardCharsets.UTF_8));
+        } else if ("/".equals(path)) {
+            respond(exchange, 200, INFO.getBytes(StandardCharsets.UTF_8));
+        } else if ("/_bulk".equals(path) || path.endsWith("/_bulk")) {
+            respond(exchange, 200, bulk(body).getBytes(StandardCharsets.UTF_8));
+        } else if (path.endsWith("/_refresh")) {
+            respond(exchange, 200, SHARDS.getBytes(StandardCharsets.UTF_8));
+        } else if ("HEAD".equals(method)) {
+            respond(exchange, 200, null);
+        } else {
+            respond(exchange, 200, ACKNOWLEDGED.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    private static String bulk(String body) {
+        StringBuilder items = new StringBuilder();
+        String[] lines = body.split("\n");
+        for (int i = 0; i < lines.length; i++) {
+            Matcher action = BULK_ACTION.matcher(lines[i]);
+            if (!action.find()) {
+                continue;
+            }
+            String type = action.group(1);
+            Matcher id = BULK_ID.matcher(lines[i]);
+            if (items.length() > 0) {
+                items.append(',');
+            }
+            items.append("{\"").append(type).append("\":{\"_index\":\"item\",\"_type\":\"_doc\",\"_id\":\"")
+                    .append(id.find() ? id.group(1) : String.valueOf(i))
+                    .append("\",\"_version\":1,\"result\":\"updated\",\"_seq_no\":0,\"_primary_term\":1,\"status\":200}}");
+            if (!"delete".equals(type)) {
+                i++;
+            }
+        }
+        return "{\"took\":1,\"errors\":false,\"items\":[" + items + "]}";
+    }
+
+    private void sleep() {
+        if (delayMs <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(delayMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void respond(HttpExchange exchange, int status, byte[] body) throws IOException {
+        exchange.getResponseHeaders().set("X-elastic-product", "Elasticsearch");
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=UTF-8");
+        if (body == null) {
+            exchange.sendResponseHeaders(status, -1);
+            exchange.close();
+            return;
+        }
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private static String hit(long itemId, double score, String name, String brand, long catalogueId,
+                              String catalogue, String type, String description) {
+        return "{\"_index\":\"item\",\"_type\":\"_doc\",\"_id\":\"" + itemId + "\",\"_version\":1,\"_seq_no\":0,\"_primary_term\":1," +
+                "\"_score\":" + score + "," +
+                "\"_source\":{\"name\":\"" + name + "\",\"item_id\":" + itemId + ",\"catalogue_id\":" + catalogueId + "," +
+                "\"catalogue\":\"" + catalogue + "\",\"brand\":\"" + brand + "\",\"type\":\"" + type + "\"," +
+                "\"description\":\"" + description + "\"}," +
+                "\"sort\":[" + score + "," + itemId + "]}";
+    }
+}
@@ -0,0 +1,143 @@
+package ru.shop.backend.search.tools;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.Random;
+
+public class IdLookupBenchmark {
+    private static final String IN_LIST = "select i.item_id, i.name, r.price, i.itemurl as url, i as image ,\n" +
+            " i.type from item as i\n" +
+            "join remain as r on r.item_id = i.item_id and r.region_id = ?\n" +
+            "where i.item_id in  (%s)";
+    private static final String ANY_ARRAY = "select i.item_id, i.name, r.price, i.itemurl as url, i as image ,\n" +
+            " i.type from item as i\n" +
+            "join remain as r on r.item_id = i.item_id and r.region_id = ?\n" +
+            "where i.item_id = any(?)";
+    private static final int[] LENGTHS = {1, 10, 50, 150};
+    private static final int ITEMS = 200_000;
+
+    private final Connection connection;
+    private final Random random = new Random(42);
+
+    public IdLookupBenchmark(Connection connection) {
+        this.connection = connection;
+    }
+
+    public static void main(String[] args) throws SQLException {
+        if (args.length < 1) {
+            System.err.println("usage: IdLookupBenchmark <jdbcUrl> [user] [password] [iterations=2000]");
+            System.exit(1);
+        }
+        int iterations = args.length > 3 ? Integer.parseInt(args[3]) : 2000;
+        try (Connection connection = DriverManager.getConnection(args[0],
+                args.length > 1 ? args[1] : null, args.length > 2 ? args[2] : null)) {
+            IdLookupBenchmark benchmark = new IdLookupBenchmark(connection);
+            benchmark.setUp();
+            System.out.printf("%-10s %-8s %10s %10s %10s%n", "lengths", "query", "mean us", "p50 us", "p99 us");
+            for (int length : LENGTHS) {
+                benchmark.run(String.valueOf(length), length, length, iterations);
+            }
+            benchmark.run("1..150", 1, 150, iterations);
+        }
+    }
+
+    private void setUp() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("create schema if not exists id_lookup_benchmark");
+            statement.execute("set search_path to id_lookup_benchmark");
+            statement.execute("drop table if exists remain, item");
+            statement.execute("create table item (item_id bigint primary key, name text, itemurl text, type text)");
+            statement.execute("create table remain (item_id bigint, region_id int, price bigint, primary key (item_id, region_id))");
+            statement.execute("insert into item select g, 'товар ' || g, 'item-' || g, 'тип ' || (g % 300)" +
+                    " from generate_series(1, " + ITEMS + ") g");
+            statement.execute("insert into remain select g, r, 1000 + g % 5000 from generate_series(1, " + ITEMS + ") g," +
+                    " generate_series(1, 3) r");
+            statement.execute("analyze item");
+            statement.execute("analyze remain");
+        }
+    }
+
+    private void run(String label, int minLength, int maxLength, int iterations) throws SQLException {
+        long[][] ids = new long[iterations][];
+        for (int i = 0; i < iterations; i++) {
+            ids[i] = randomIds(minLength + random.nextInt(maxLength - minLength + 1));
+        }
+        report(label, "in (...)", measure(ids, this::inList));
+        report(label, "= any(?)", measure(ids, this::anyArray));
+    }
+
+    private long[] measure(long[][] ids, Lookup lookup) throws SQLException {
+        for (int i = 0; i < Math.min(200, ids.length); i++) {
+            lookup.run(ids[i]);
+        }
+        long[] nanos = new long[ids.length];
+        for (int i = 0; i < ids.length; i++) {
+            long start = System.nanoTime();
+            lookup.run(ids[i]);
+            nanos[i] = System.nanoTime() - start;
+        }
+        return nanos;
+    }
+
+    private int inList(long[] ids) throws SQLException {
+        char[] placeholders = new char[ids.length * 2 - 1];
+        Arrays.fill(placeholders, ',');
+        for (int i = 0; i < placeholders.length; i += 2) {
+            placeholders[i] = '?';
+        }
+        try (PreparedStatement ps = connection.prepareStatement(String.format(IN_LIST, new String(placeholders)))) {
+            ps.setInt(1, 1);
+            for (int i = 0; i < ids.length; i++) {
+                ps.setLong(i + 2, ids[i]);
+            }
+            return drain(ps);
+        }
+    }
+
+    private int anyArray(long[] ids) throws SQLException {
+        try (PreparedStatement ps = connection.prepareStatement(ANY_ARRAY)) {
+            ps.setInt(1, 1);
+            Long[] boxed = new Long[ids.length];
+            for (int i = 0; i < ids.length; i++) {
+                boxed[i] = ids[i];
+            }
+            ps.setArray(2, connection.createArrayOf("bigint", boxed));
+            return drain(ps);
+        }
+    }
+
+    private static int drain(PreparedStatement ps) throws SQLException {
+        int rows = 0;
+        try (ResultSet rs = ps.executeQuery()) {
+            while (rs.next()) {
+                rows++;
+            }
+        }
+        return rows;
+    }
+
+    private long[] randomIds(int length) {
+        long[] ids = new long[length];
+        for (int i = 0; i < length; i++) {
+            ids[i] = 1 + random.nextInt(ITEMS);
+        }
+        return ids;
+    }
+
+    private static void report(String label, String query, long[] nanos) {
+        long[] sorted = nanos.clone();
+        Arrays.sort(sorted);
+        double mean = Arrays.stream(sorted).average().orElse(0) / 1000;
+        System.out.printf("%-10s %-8s %10.1f %10.1f %10.1f%n", label, query, mean,
+                sorted[sorted.length / 2] / 1000.0, sorted[(int) Math.ceil(sorted.length * 0.99) - 1] / 1000.0);
+    }
+
+    private interface Lookup {
+        int run(long[] ids) throws SQLException;
+    }
+}
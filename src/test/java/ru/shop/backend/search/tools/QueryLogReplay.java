@@ -0,0 +1,141 @@
+package ru.shop.backend.search.tools;
+
+import ru.shop.backend.search.model.QueryLogRecord;
+import ru.shop.backend.search.service.QueryLogReader;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+public class QueryLogReplay {
+    private final HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+    private final String baseUrl;
+    private final double speed;
+    private final Map<QueryLogRecord.Endpoint, Stats> stats = new EnumMap<>(QueryLogRecord.Endpoint.class);
+
+    public QueryLogReplay(String baseUrl, double speed) {
+        this.baseUrl = baseUrl;
+        this.speed = speed;
+        for (QueryLogRecord.Endpoint endpoint : QueryLogRecord.Endpoint.values()) {
+            stats.put(endpoint, new Stats());
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 1) {
+            System.err.println("usage: QueryLogReplay <file.qlog> [baseUrl=http://localhost:8080] [speed=1.0]");
+            System.exit(1);
+        }
+        String baseUrl = args.length > 1 ? args[1] : "http://localhost:8080";
+        double speed = args.length > 2 ? Double.parseDouble(args[2]) : 1.0;
+        new QueryLogReplay(baseUrl, speed).replay(args[0]);
+    }
+
+    public void replay(String file) throws IOException, InterruptedException {
+        List<CompletableFuture<Void>> inFlight = new ArrayList<>();
+        long firstTimestamp = -1;
+        long start = System.nanoTime();
+        try (QueryLogReader reader = new QueryLogReader(new BufferedInputStream(Files.newInputStream(Paths.get(file))))) {
+            QueryLogRecord record;
+            while ((record = read(reader)) != null) {
+                if (firstTimestamp < 0) {
+                    firstTimestamp = record.getTimestamp();
+                }
+                long dueNanos = start + (long) ((record.getTimestamp() - firstTimestamp) * 1_000_000 / speed);
+                long sleepNanos = dueNanos - System.nanoTime();
+                if (sleepNanos > 0) {
+                    Thread.sleep(sleepNanos / 1_000_000, (int) (sleepNanos % 1_000_000));
+                }
+                inFlight.add(send(record));
+                inFlight.removeIf(CompletableFuture::isDone);
+            }
+            if (reader.isTruncated()) {
+                System.err.printf("журнал обрывается после %d записей, неполная последняя запись пропущена%n",
+                        reader.getRecords());
+            }
+        }
+        CompletableFuture.allOf(inFlight.toArray(new CompletableFuture[0])).join();
+        report((System.nanoTime() - start) / 1_000_000_000.0);
+    }
+
+    private static QueryLogRecord read(QueryLogReader reader) {
+        try {
+            return reader.read();
+        } catch (IOException e) {
+            System.err.println(e.getMessage() + ", воспроизведение остановлено");
+            return null;
+        }
+    }
+
+    private CompletableFuture<Void> send(QueryLogRecord record) {
+        HttpRequest request = HttpRequest.newBuilder()
+                .uri(URI.create(baseUrl + record.getEndpoint().getPath()
+                        + "?text=" + URLEncoder.encode(record.getText(), StandardCharsets.UTF_8)))
+                .header("Cookie", "regionId=" + record.getRegionId())
+                .timeout(Duration.ofSeconds(30))
+                .GET()
+                .build();
+        Stats endpointStats = stats.get(record.getEndpoint());
+        long sent = System.nanoTime();
+        return client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                .handle((response, error) -> {
+                    endpointStats.add((System.nanoTime() - sent) / 1_000, error == null && response.statusCode() < 400);
+                    return null;
+                });
+    }
+
+    private void report(double seconds) {
+        System.out.printf("%-16s %8s %7s %9s %9s %9s %9s %9s%n",
+                "endpoint", "count", "errors", "req/s", "p50 ms", "p90 ms", "p99 ms", "max ms");
+        stats.forEach((endpoint, s) -> {
+            long[] latencies = s.sorted();
+            System.out.printf("%-16s %8d %7d %9.1f %9.2f %9.2f %9.2f %9.2f%n",
+                    endpoint.getPath(), latencies.length, s.errors, latencies.length / seconds,
+                    percentile(latencies, 0.50), percentile(latencies, 0.90),
+                    percentile(latencies, 0.99), percentile(latencies, 1.0));
+        });
+    }
+
+    private static double percentile(long[] sorted, double p) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        return sorted[Math.max(0, (int) Math.ceil(sorted.length * p) - 1)] / 1000.0;
+    }
+
+    private static class Stats {
+        private long[] micros = new long[1024];
+        private int count;
+        private long errors;
+
+        synchronized void add(long latencyMicros, boolean ok) {
+            if (count == micros.length) {
+                micros = Arrays.copyOf(micros, count * 2);
+            }
+            micros[count++] = latencyMicros;
+            if (!ok) {
+                errors++;
+            }
+        }
+
+        synchronized long[] sorted() {
+            long[] result = Arrays.copyOf(micros, count);
+            Arrays.sort(result);
+            return result;
+        }
+    }
+}
@@ -0,0 +1,58 @@
+-- Минимальная схема базы сайта для локального прогона журнала запросов
+-- вместе с tools.ElasticStub. Идентификаторы товаров совпадают с ответом заглушки.
+
+create table if not exists catalogue (
+    catalogue_id bigint primary key,
+    parent_id    bigint,
+    name         text not null,
+    realcatname  text not null,
+    image        text
+);
+
+create table if not exists item (
+    item_id      bigint primary key,
+    name         text not null,
+    brand        text not null,
+    brand_id     bigint not null,
+    catalogue    text not null,
+    catalogue_id bigint not null references catalogue (catalogue_id),
+    type         text not null,
+    description  text not null,
+    itemurl      text not null
+);
+
+create table if not exists remain (
+    item_id   bigint not null references item (item_id),
+    region_id int    not null,
+    price     int    not null,
+    primary key (item_id, region_id)
+);
+
+create table if not exists item_sku (
+    item_id bigint not null references item (item_id),
+    sku     text   not null,
+    primary key (item_id, sku)
+);
+
+insert into catalogue (catalogue_id, parent_id, name, realcatname, image) values
+    (1, 1, 'Электроника', 'elektronika', null),
+    (10, 1, 'Смартфоны', 'smartfony', 'smartfony.png'),
+    (11, 1, 'Ноутбуки', 'noutbuki', 'noutbuki.png')
+on conflict do nothing;
+
+insert into item (item_id, name, brand, brand_id, catalogue, catalogue_id, type, description, itemurl) values
+    (1001, 'Apple iPhone 13 128 ГБ', 'Apple', 1, 'Смартфоны', 10, 'Смартфон',
+     'Цвет: черный;NFC: есть;Стилус: нет', 'apple-iphone-13-128'),
+    (1002, 'Samsung Galaxy S22 256 ГБ', 'Samsung', 2, 'Смартфоны', 10, 'Смартфон',
+     'Цвет: белый;NFC: есть', 'samsung-galaxy-s22-256'),
+    (1003, 'Lenovo IdeaPad 3 15', 'Lenovo', 3, 'Ноутбуки', 11, 'Ноутбук',
+     'Диагональ: 15.6;Подсветка клавиатуры: -', 'lenovo-ideapad-3-15')
+on conflict do nothing;
+
+insert into remain (item_id, region_id, price) values
+    (1001, 1, 79990), (1002, 1, 69990), (1003, 1, 45990)
+on conflict do nothing;
+
+insert into item_sku (item_id, sku) values
+    (1001, '100100'), (1002, '100200'), (1003, '100300')
+on conflict do nothing;